@@ -0,0 +1,45 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import io.mitrofanovbp.testdrivebot.telegram.CallbackData;
+import io.mitrofanovbp.testdrivebot.telegram.Callbacks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Callback data encoding and parsing with the binary {@link Callbacks} codec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallbackParsingBenchmark {
+
+    private final OffsetDateTime slot = OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC);
+    private final String encodedDay = Callbacks.day(7, slot.toLocalDate());
+    private final String encodedConfirm = Callbacks.confirm(7, slot);
+
+    @Benchmark
+    public void codecDayCallback(Blackhole bh) {
+        CallbackData cd = Callbacks.decode(encodedDay);
+        bh.consume(cd.carId());
+        bh.consume(cd.day());
+    }
+
+    @Benchmark
+    public void codecConfirmCallback(Blackhole bh) {
+        CallbackData cd = Callbacks.decode(encodedConfirm);
+        bh.consume(cd.carId());
+        bh.consume(cd.slotUtc());
+    }
+
+    @Benchmark
+    public String codecEncodeConfirm() {
+        return Callbacks.confirm(7, slot);
+    }
+}
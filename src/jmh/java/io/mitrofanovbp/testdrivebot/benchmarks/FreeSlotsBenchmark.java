@@ -0,0 +1,84 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.service.AvailabilityService;
+import io.mitrofanovbp.testdrivebot.service.BookingService;
+import io.mitrofanovbp.testdrivebot.service.SlotGrid;
+import io.mitrofanovbp.testdrivebot.service.SlotOccupancyIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free slot lookups (single day and a week of counts): occupancy index path vs. DB fallback path
+ * (repository stubbed in memory).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FreeSlotsBenchmark {
+
+    private static final int CARS = 10;
+    private static final int DAYS = 7;
+
+    private BookingService indexed;
+    private BookingService fallback;
+    private AvailabilityService weekIndexed;
+    private AvailabilityService weekFallback;
+    private LocalDate start;
+    private LocalDate day;
+
+    @Setup
+    public void setup() {
+        LocalDate start = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        List<InMemoryBookingRepository.Slot> slots = new ArrayList<>();
+        for (long car = 1; car <= CARS; car++) {
+            for (int d = 0; d < DAYS; d++) {
+                // every other hour is taken
+                for (int i = (int) (car % 2); i < SlotGrid.SLOTS_PER_DAY; i += 2) {
+                    OffsetDateTime slot = SlotGrid.slotAt(start.plusDays(d), i);
+                    slots.add(new InMemoryBookingRepository.Slot(car, slot));
+                }
+            }
+        }
+        BookingRepository repo = InMemoryBookingRepository.of(slots);
+
+        SlotOccupancyIndex warm = new SlotOccupancyIndex(repo);
+        warm.warmUp();
+        indexed = new BookingService(repo, null, warm, null, null, new SimpleMeterRegistry());
+        fallback = new BookingService(repo, null, new SlotOccupancyIndex(repo), null, null, new SimpleMeterRegistry());
+        weekIndexed = new AvailabilityService(warm, repo, null);
+        weekFallback = new AvailabilityService(new SlotOccupancyIndex(repo), repo, null);
+        this.start = start;
+        day = start.plusDays(2);
+    }
+
+    @Benchmark
+    public List<OffsetDateTime> indexed() {
+        return indexed.freeSlotsUtc(3L, day);
+    }
+
+    @Benchmark
+    public List<OffsetDateTime> rangeQueryFallback() {
+        return fallback.freeSlotsUtc(3L, day);
+    }
+
+    @Benchmark
+    public int[] weekCountsIndexed() {
+        return weekIndexed.freeSlotCounts(3L, start, DAYS);
+    }
+
+    @Benchmark
+    public int[] weekCountsRangeQuery() {
+        return weekFallback.freeSlotCounts(3L, start, DAYS);
+    }
+}
@@ -0,0 +1,70 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingSlotView;
+
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BookingRepository stub backed by an in-memory list of CONFIRMED slots.
+ * Only the queries used on the availability path are implemented.
+ */
+final class InMemoryBookingRepository {
+    private InMemoryBookingRepository() {
+    }
+
+    record Slot(Long carId, OffsetDateTime datetime) implements BookingSlotView {
+        @Override
+        public Long getCarId() {
+            return carId;
+        }
+
+        @Override
+        public OffsetDateTime getDatetime() {
+            return datetime;
+        }
+    }
+
+    static BookingRepository of(List<Slot> confirmed) {
+        return (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(),
+                new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findConfirmedSlotsByCarIdBetween" -> slotsBetween(confirmed, (Long) args[0],
+                            (OffsetDateTime) args[1], (OffsetDateTime) args[2]);
+                    case "findSlotsByStatusFrom" -> slotsFrom(confirmed, (BookingStatus) args[0], (OffsetDateTime) args[1]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryBookingRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<OffsetDateTime> slotsBetween(List<Slot> confirmed, Long carId,
+                                                     OffsetDateTime from, OffsetDateTime to) {
+        List<OffsetDateTime> result = new ArrayList<>();
+        for (Slot s : confirmed) {
+            if (s.carId().equals(carId) && !s.datetime().isBefore(from) && s.datetime().isBefore(to)) {
+                result.add(s.datetime());
+            }
+        }
+        return result;
+    }
+
+    private static List<BookingSlotView> slotsFrom(List<Slot> confirmed, BookingStatus status, OffsetDateTime from) {
+        List<BookingSlotView> result = new ArrayList<>();
+        if (status != BookingStatus.CONFIRMED) {
+            return result;
+        }
+        for (Slot s : confirmed) {
+            if (!s.datetime().isBefore(from)) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+}
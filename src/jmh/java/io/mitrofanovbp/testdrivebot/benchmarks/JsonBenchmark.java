@@ -0,0 +1,51 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mitrofanovbp.testdrivebot.config.JacksonConfig;
+import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of admin booking rows with the application ObjectMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper mapper;
+    private BookingAdminDto row;
+    private List<BookingAdminDto> page;
+
+    @Setup
+    public void setup() {
+        mapper = new JacksonConfig().objectMapper();
+        OffsetDateTime dt = OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC);
+        row = new BookingAdminDto(1L, 2L, 123456789L, "John Smith", "jsmith", 3L, "Tesla Model 3", dt, "CONFIRMED");
+        page = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            page.add(new BookingAdminDto(i, i, 100_000L + i, "User " + i, "user" + i, i % 10, "Model " + i % 10,
+                    dt.plusHours(i), "CONFIRMED"));
+        }
+    }
+
+    @Benchmark
+    public byte[] singleRow() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(row);
+    }
+
+    @Benchmark
+    public byte[] pageOf100() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
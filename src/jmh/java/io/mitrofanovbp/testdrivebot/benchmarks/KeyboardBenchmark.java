@@ -0,0 +1,77 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.service.CarCatalog;
+import io.mitrofanovbp.testdrivebot.service.SlotGrid;
+import io.mitrofanovbp.testdrivebot.telegram.utils.KeyboardUtils;
+import org.openjdk.jmh.annotations.*;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KeyboardUtils construction on the callback path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyboardBenchmark {
+
+    private List<CarDto> cars;
+    private CarCatalog catalog;
+    private LocalDate today;
+    private List<OffsetDateTime> slots;
+    private final int[] freeCounts = {4, 9, 0, 7, 9, 9, 2};
+
+    @Setup
+    public void setup() {
+        cars = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            cars.add(new CarDto(i, "Model " + i, "Description " + i));
+        }
+        catalog = new CarCatalog(1, cars);
+        today = LocalDate.now(ZoneOffset.UTC);
+        slots = new ArrayList<>();
+        for (int i = 0; i < SlotGrid.SLOTS_PER_DAY; i++) {
+            slots.add(SlotGrid.slotAt(today.plusDays(1), i));
+        }
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup mainMenu() {
+        return KeyboardUtils.mainMenu();
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup carsFromList() {
+        return KeyboardUtils.carsKeyboard(cars);
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup carsFromCatalog() {
+        return KeyboardUtils.carsKeyboard(catalog);
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup days() {
+        return KeyboardUtils.daysKeyboard(5L, today, freeCounts);
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup timeSlots() {
+        return KeyboardUtils.timeSlotsKeyboard(5L, today.plusDays(1), slots);
+    }
+
+    @Benchmark
+    public InlineKeyboardMarkup confirm() {
+        return KeyboardUtils.confirmKeyboard(5L, slots.get(3));
+    }
+}
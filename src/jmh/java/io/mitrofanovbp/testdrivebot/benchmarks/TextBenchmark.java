@@ -0,0 +1,46 @@
+package io.mitrofanovbp.testdrivebot.benchmarks;
+
+import io.mitrofanovbp.testdrivebot.dto.BookingDto;
+import io.mitrofanovbp.testdrivebot.telegram.commands.MyBookingsCommand;
+import io.mitrofanovbp.testdrivebot.telegram.utils.TextUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User-facing text rendering: slot formatting and the "My bookings" screen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextBenchmark {
+
+    private OffsetDateTime slot;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setup() {
+        slot = OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC);
+        bookings = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            bookings.add(new BookingDto(i, i, "Model " + i, slot.plusDays(i), "CONFIRMED"));
+        }
+    }
+
+    @Benchmark
+    public String formatSlot() {
+        return TextUtils.formatSlot(slot);
+    }
+
+    @Benchmark
+    public String myBookingsText() {
+        return MyBookingsCommand.buildText(bookings);
+    }
+}
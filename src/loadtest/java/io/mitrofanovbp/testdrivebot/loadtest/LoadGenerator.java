@@ -0,0 +1,263 @@
+package io.mitrofanovbp.testdrivebot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.mitrofanovbp.testdrivebot.TestDriveBookingBotApplication;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.service.CarService;
+import io.mitrofanovbp.testdrivebot.telegram.Callbacks;
+import io.mitrofanovbp.testdrivebot.telegram.OutboundSender;
+import io.mitrofanovbp.testdrivebot.telegram.TestDriveBot;
+import io.mitrofanovbp.testdrivebot.telegram.UpdateDispatcher;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load generator: boots the application against PostgreSQL in a Testcontainers container
+ * and the {@code telegram-stub} Bot API, then replays seeded synthetic users walking
+ * CARS → CAR → DAY → TIME → CONFIRM → MY through {@link TestDriveBot#onUpdateReceived}.
+ * <p>
+ * Reports throughput, p50/p99 handling time per callback action (the {@code bot.updates} timer)
+ * and the booking conflict rate, and writes them to {@code target/loadtest-result.json}.
+ * <p>
+ * Run: {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users=5000 --seed=7"}.
+ * Options: {@code --users} (2000), {@code --seed} (42), {@code --drivers} feeding threads (4),
+ * {@code --days} booking horizon (7), {@code --port} local HTTP port for the stub (18080).
+ */
+public final class LoadGenerator {
+
+    private static final long CHAT_ID_BASE = 7_000_000_000L;
+    private static final long DRAIN_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int users;
+    private final long seed;
+    private final int drivers;
+    private final int days;
+
+    private final AtomicInteger updateIds = new AtomicInteger();
+
+    private LoadGenerator(Map<String, String> opts) {
+        this.users = Integer.parseInt(opts.getOrDefault("users", "2000"));
+        this.seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        this.drivers = Integer.parseInt(opts.getOrDefault("drivers", "4"));
+        this.days = Integer.parseInt(opts.getOrDefault("days", "7"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int port = Integer.parseInt(opts.getOrDefault("port", "18080"));
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")) {
+            postgres.start();
+            ConfigurableApplicationContext ctx = new SpringApplicationBuilder(TestDriveBookingBotApplication.class)
+                    .profiles("telegram-stub")
+                    .run(appArgs(postgres, port));
+            try {
+                Map<String, Object> report = new LoadGenerator(opts).run(ctx);
+                ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+                File out = new File("target/loadtest-result.json");
+                out.getParentFile().mkdirs();
+                json.writeValue(out, report);
+                System.out.println(json.writeValueAsString(report));
+            } finally {
+                ctx.close();
+            }
+        }
+    }
+
+    /**
+     * Command-line properties win over application.yml and the environment.
+     */
+    private static String[] appArgs(PostgreSQLContainer<?> postgres, int port) {
+        String base = "http://localhost:" + port;
+        return new String[]{
+                "--server.port=" + port,
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--app.telegram-bot-token=loadtest:token",
+                "--app.telegram-bot-username=loadtest_bot",
+                "--app.telegram-api-url=" + base + "/telegram-stub/",
+                "--app.webhook.enabled=true",
+                "--app.webhook.url=" + base + "/telegram/webhook",
+                // the stub does not rate limit; measure the bot, not Telegram's quotas
+                "--app.sender.global-per-second=100000",
+                "--app.sender.global-burst=100000",
+                "--app.sender.per-chat-per-second=1000",
+                "--app.sender.per-chat-burst=1000",
+                "--management.metrics.distribution.percentiles.bot.updates=0.5,0.99",
+                "--logging.level.root=WARN"
+        };
+    }
+
+    private Map<String, Object> run(ConfigurableApplicationContext ctx) throws Exception {
+        TestDriveBot bot = ctx.getBean(TestDriveBot.class);
+        UpdateDispatcher dispatcher = ctx.getBean(UpdateDispatcher.class);
+        OutboundSender sender = ctx.getBean(OutboundSender.class);
+        MeterRegistry meters = ctx.getBean(MeterRegistry.class);
+        List<CarDto> cars = ctx.getBean(CarService.class).listAll();
+
+        List<List<Update>> scripts = new ArrayList<>(users);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int u = 0; u < users; u++) {
+            scripts.add(script(CHAT_ID_BASE + u, cars, random.split()));
+        }
+
+        long started = System.nanoTime();
+        ExecutorService feeders = Executors.newFixedThreadPool(drivers);
+        List<Future<?>> feeding = new ArrayList<>();
+        for (int d = 0; d < drivers; d++) {
+            int first = d;
+            feeding.add(feeders.submit(() -> feed(bot, scripts, first)));
+        }
+        for (Future<?> f : feeding) {
+            f.get();
+        }
+        feeders.shutdown();
+        long handledAt = await(() -> dispatcher.getQueueDepth() == 0);
+        await(() -> sender.getQueueDepth() == 0);
+
+        return report(meters, scripts, handledAt - started);
+    }
+
+    /**
+     * One user's session; each callback comes from the same bot message, as when the user taps through it.
+     */
+    private List<Update> script(long chatId, List<CarDto> cars, SplittableRandom random) {
+        // quadratic skew: a few popular cars get most of the traffic, which produces realistic conflicts
+        long carId = cars.get((int) (cars.size() * Math.pow(random.nextDouble(), 2))).getId();
+        LocalDate day = LocalDate.now(ZoneOffset.UTC).plusDays(1 + random.nextInt(days));
+        OffsetDateTime slot = day.atTime(9 + random.nextInt(9), 0).atOffset(ZoneOffset.UTC);
+
+        List<Update> steps = new ArrayList<>(6);
+        steps.add(callback(chatId, Callbacks.CARS));
+        steps.add(callback(chatId, Callbacks.car(carId)));
+        steps.add(callback(chatId, Callbacks.day(carId, day)));
+        steps.add(callback(chatId, Callbacks.time(carId, slot)));
+        steps.add(callback(chatId, Callbacks.confirm(carId, slot)));
+        steps.add(callback(chatId, Callbacks.MY));
+        return steps;
+    }
+
+    private Update callback(long chatId, String data) {
+        User from = new User(chatId, "Load " + chatId, false);
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setChat(new Chat(chatId, "private"));
+        message.setFrom(from);
+
+        CallbackQuery cb = new CallbackQuery();
+        int updateId = updateIds.incrementAndGet();
+        cb.setId("lt-" + updateId);
+        cb.setFrom(from);
+        cb.setMessage(message);
+        cb.setData(data);
+
+        Update update = new Update();
+        update.setUpdateId(updateId);
+        update.setCallbackQuery(cb);
+        return update;
+    }
+
+    /**
+     * Feeds the users of one driver step by step, interleaving their sessions.
+     */
+    private void feed(TestDriveBot bot, List<List<Update>> scripts, int first) {
+        int steps = scripts.get(0).size();
+        for (int step = 0; step < steps; step++) {
+            for (int u = first; u < scripts.size(); u += drivers) {
+                bot.onUpdateReceived(scripts.get(u).get(step));
+            }
+        }
+    }
+
+    private Map<String, Object> report(MeterRegistry meters, List<List<Update>> scripts, long elapsedNanos) {
+        long updates = (long) scripts.size() * scripts.get(0).size();
+        double seconds = elapsedNanos / 1e9;
+
+        Map<String, Object> perAction = new TreeMap<>();
+        for (Timer t : meters.find("bot.updates").tag("type", "callback").timers()) {
+            HistogramSnapshot s = t.takeSnapshot();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", s.count());
+            for (ValueAtPercentile p : s.percentileValues()) {
+                row.put("p" + Math.round(p.percentile() * 100) + "Ms", p.value(TimeUnit.MILLISECONDS));
+            }
+            row.put("maxMs", s.max(TimeUnit.MILLISECONDS));
+            perAction.put(t.getId().getTag("action"), row);
+        }
+
+        long created = bookingCount(meters, "created");
+        long conflicts = bookingCount(meters, "conflict");
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", scripts.size());
+        report.put("seed", seed);
+        report.put("updates", updates);
+        report.put("seconds", seconds);
+        report.put("updatesPerSecond", updates / seconds);
+        report.put("bookingsCreated", created);
+        report.put("bookingConflicts", conflicts);
+        report.put("conflictRate", created + conflicts == 0 ? 0.0 : (double) conflicts / (created + conflicts));
+        report.put("callbacks", perAction);
+        return report;
+    }
+
+    private static long bookingCount(MeterRegistry meters, String outcome) {
+        Timer t = meters.find("booking.create").tag("outcome", outcome).timer();
+        return t == null ? 0 : t.count();
+    }
+
+    private static long await(Check done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (!done.ok()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Load did not drain in time");
+            }
+            Thread.sleep(5);
+        }
+        return System.nanoTime();
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean ok();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unsupported argument: " + arg + " (expected --name=value)");
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return opts;
+    }
+}
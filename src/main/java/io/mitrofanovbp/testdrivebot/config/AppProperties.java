@@ -3,6 +3,8 @@ package io.mitrofanovbp.testdrivebot.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Application configuration properties bound from application.yml / environment.
  * No secrets are hardcoded; values are expected via environment variables.
@@ -21,11 +23,66 @@ public class AppProperties {
      */
     private String telegramBotUsername;
 
+    /**
+     * Telegram Bot API base URL; point it to a local stand-in server for offline runs.
+     */
+    private String telegramApiUrl = "https://api.telegram.org/";
+
     /**
      * Admin token value required in X-Admin-Token for /api/admin/** endpoints.
      */
     private String adminToken;
 
+    /**
+     * Update dispatching (worker pool for bot update handling).
+     */
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    /**
+     * Webhook ingestion (alternative to long polling).
+     */
+    private final Webhook webhook = new Webhook();
+
+    /**
+     * Suppression of duplicate updates and repeated button presses.
+     */
+    private final Dedupe dedupe = new Dedupe();
+
+    /**
+     * Persistence of the last processed update id (long polling restarts).
+     */
+    private final UpdateOffset updateOffset = new UpdateOffset();
+
+    /**
+     * Reminders about upcoming test drives.
+     */
+    private final Reminders reminders = new Reminders();
+
+    /**
+     * Moving past bookings into bookings_history.
+     */
+    private final Archive archive = new Archive();
+
+    /**
+     * Outbound Telegram API calls (async queue with rate limiting).
+     */
+    private final Sender sender = new Sender();
+
+    /**
+     * Cache of resolved Telegram users (telegram id -> user id, username, name).
+     */
+    private final CacheSpec userCache = new CacheSpec(10_000, Duration.ofMinutes(30));
+
+    /**
+     * Cache of active bookings per user (My bookings screen).
+     */
+    private final CacheSpec activeBookingsCache = new CacheSpec(10_000, Duration.ofMinutes(10));
+
+    /**
+     * Booking flow state per chat (selected car, day, slot); ttl counts from the last access.
+     */
+    private final CacheSpec chatSessions = new CacheSpec(50_000, Duration.ofMinutes(30));
+
     public String getTelegramBotToken() {
         return telegramBotToken;
     }
@@ -42,6 +99,14 @@ public class AppProperties {
         this.telegramBotUsername = telegramBotUsername;
     }
 
+    public String getTelegramApiUrl() {
+        return telegramApiUrl;
+    }
+
+    public void setTelegramApiUrl(String telegramApiUrl) {
+        this.telegramApiUrl = telegramApiUrl;
+    }
+
     public String getAdminToken() {
         return adminToken;
     }
@@ -49,4 +114,418 @@ public class AppProperties {
     public void setAdminToken(String adminToken) {
         this.adminToken = adminToken;
     }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public Webhook getWebhook() {
+        return webhook;
+    }
+
+    public Sender getSender() {
+        return sender;
+    }
+
+    public Dedupe getDedupe() {
+        return dedupe;
+    }
+
+    public UpdateOffset getUpdateOffset() {
+        return updateOffset;
+    }
+
+    public Reminders getReminders() {
+        return reminders;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    public CacheSpec getUserCache() {
+        return userCache;
+    }
+
+    public CacheSpec getActiveBookingsCache() {
+        return activeBookingsCache;
+    }
+
+    public CacheSpec getChatSessions() {
+        return chatSessions;
+    }
+
+    public static class Dispatcher {
+
+        /**
+         * Number of platform worker threads handling updates.
+         */
+        private int workers = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * Use virtual threads instead of the worker pool when the runtime supports them (Java 21+).
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * Updates queued or in progress before intake blocks (backpressure on polling / webhook).
+         */
+        private int queueCapacity = 10_000;
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Webhook {
+
+        /**
+         * Receive updates via webhook instead of long polling.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Public HTTPS URL Telegram should call, ending with /telegram/webhook.
+         */
+        private String url;
+
+        /**
+         * Secret echoed by Telegram in X-Telegram-Bot-Api-Secret-Token (optional but recommended).
+         */
+        private String secretToken;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getSecretToken() {
+            return secretToken;
+        }
+
+        public void setSecretToken(String secretToken) {
+            this.secretToken = secretToken;
+        }
+    }
+
+    public static class Dedupe {
+
+        /**
+         * Recently seen update ids / callback ids / button presses remembered per table.
+         */
+        private int windowSize = 4096;
+
+        /**
+         * Repeated presses of the same button on the same message within this window are dropped.
+         */
+        private Duration coalesceWindow = Duration.ofMillis(1500);
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+    }
+
+    public static class UpdateOffset {
+
+        /**
+         * How often the last processed update id is written to the database.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    public static class Reminders {
+
+        private boolean enabled = true;
+
+        /**
+         * How long before the slot the reminder is sent.
+         */
+        private Duration lead = Duration.ofHours(1);
+
+        /**
+         * Resolution of the reminder timing wheel.
+         */
+        private Duration tick = Duration.ofMinutes(1);
+
+        /**
+         * Bookings whose reminder is due within this window are kept in memory.
+         */
+        private Duration window = Duration.ofHours(24);
+
+        /**
+         * How often the window is reloaded from the database.
+         */
+        private Duration refresh = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getLead() {
+            return lead;
+        }
+
+        public void setLead(Duration lead) {
+            this.lead = lead;
+        }
+
+        public Duration getTick() {
+            return tick;
+        }
+
+        public void setTick(Duration tick) {
+            this.tick = tick;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public Duration getRefresh() {
+            return refresh;
+        }
+
+        public void setRefresh(Duration refresh) {
+            this.refresh = refresh;
+        }
+    }
+
+    public static class Archive {
+
+        private boolean enabled = true;
+
+        /**
+         * Bookings older than this (counted from the start of today, UTC) are archived.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Rows moved per transaction.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Upper bound of chunks per run.
+         */
+        private int maxBatches = 1000;
+
+        /**
+         * Pause between chunks to leave room for regular traffic.
+         */
+        private Duration pause = Duration.ofMillis(50);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatches() {
+            return maxBatches;
+        }
+
+        public void setMaxBatches(int maxBatches) {
+            this.maxBatches = maxBatches;
+        }
+
+        public Duration getPause() {
+            return pause;
+        }
+
+        public void setPause(Duration pause) {
+            this.pause = pause;
+        }
+    }
+
+    public static class Sender {
+
+        /**
+         * Global Bot API calls per second (Telegram allows about 30).
+         */
+        private double globalPerSecond = 30;
+
+        private int globalBurst = 30;
+
+        /**
+         * Sustained calls per second to a single chat.
+         */
+        private double perChatPerSecond = 1;
+
+        /**
+         * Calls a single chat may receive back-to-back before the per-chat rate applies.
+         */
+        private int perChatBurst = 3;
+
+        /**
+         * Retries of a call answered with 429 retry_after.
+         */
+        private int maxRetries = 5;
+
+        /**
+         * Threads performing HTTP calls for the async API.
+         */
+        private int httpThreads = 8;
+
+        public double getGlobalPerSecond() {
+            return globalPerSecond;
+        }
+
+        public void setGlobalPerSecond(double globalPerSecond) {
+            this.globalPerSecond = globalPerSecond;
+        }
+
+        public int getGlobalBurst() {
+            return globalBurst;
+        }
+
+        public void setGlobalBurst(int globalBurst) {
+            this.globalBurst = globalBurst;
+        }
+
+        public double getPerChatPerSecond() {
+            return perChatPerSecond;
+        }
+
+        public void setPerChatPerSecond(double perChatPerSecond) {
+            this.perChatPerSecond = perChatPerSecond;
+        }
+
+        public int getPerChatBurst() {
+            return perChatBurst;
+        }
+
+        public void setPerChatBurst(int perChatBurst) {
+            this.perChatBurst = perChatBurst;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public int getHttpThreads() {
+            return httpThreads;
+        }
+
+        public void setHttpThreads(int httpThreads) {
+            this.httpThreads = httpThreads;
+        }
+    }
+
+    public static class CacheSpec {
+
+        /**
+         * Maximum number of entries.
+         */
+        private long maxSize;
+
+        /**
+         * Time after the last write when an entry expires.
+         */
+        private Duration ttl;
+
+        public CacheSpec() {
+        }
+
+        public CacheSpec(long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
 }
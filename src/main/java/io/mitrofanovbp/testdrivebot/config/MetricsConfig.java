@@ -0,0 +1,34 @@
+package io.mitrofanovbp.testdrivebot.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.mitrofanovbp.testdrivebot.service.ActiveBookingsCache;
+import io.mitrofanovbp.testdrivebot.service.ReminderScheduler;
+import io.mitrofanovbp.testdrivebot.service.UserService;
+import io.mitrofanovbp.testdrivebot.telegram.UpdateDispatcher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the bot pipeline state. Timers and counters are recorded where the work happens
+ * (TestDriveBot, OutboundSender, BookingService); Hikari and JVM metrics come from Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder botPipelineMetrics(UpdateDispatcher dispatcher, UserService userService,
+                                         ActiveBookingsCache activeBookings, ReminderScheduler reminders) {
+        return registry -> {
+            Gauge.builder("bot.dispatcher.queue", dispatcher, UpdateDispatcher::getQueueDepth)
+                    .description("Updates dispatched but not processed yet")
+                    .register(registry);
+            Gauge.builder("bot.dispatcher.active.keys", dispatcher, UpdateDispatcher::getActiveKeys)
+                    .description("Chats with updates in flight")
+                    .register(registry);
+            userService.bindCacheMetrics(registry);
+            activeBookings.bindCacheMetrics(registry);
+            reminders.bindMetrics(registry);
+        };
+    }
+}
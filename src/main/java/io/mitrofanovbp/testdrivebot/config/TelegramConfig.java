@@ -1,16 +1,32 @@
 package io.mitrofanovbp.testdrivebot.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mitrofanovbp.testdrivebot.repository.UpdateOffsetRepository;
+import io.mitrofanovbp.testdrivebot.service.AvailabilityService;
 import io.mitrofanovbp.testdrivebot.service.BookingService;
 import io.mitrofanovbp.testdrivebot.service.CarService;
+import io.mitrofanovbp.testdrivebot.service.ReminderScheduler;
 import io.mitrofanovbp.testdrivebot.service.UserService;
+import io.mitrofanovbp.testdrivebot.telegram.OutboundSender;
 import io.mitrofanovbp.testdrivebot.telegram.TestDriveBot;
+import io.mitrofanovbp.testdrivebot.telegram.UpdateDispatcher;
+import io.mitrofanovbp.testdrivebot.telegram.UpdateOffsetTracker;
+import io.mitrofanovbp.testdrivebot.telegram.UpdatePoller;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
 import org.springframework.util.StringUtils;
-import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+/**
+ * Creates the bot and wires update ingestion: long polling (default) or webhook
+ * (app.webhook.enabled=true, updates arrive at TelegramWebhookController).
+ */
 @Configuration
 public class TelegramConfig {
 
@@ -20,21 +36,80 @@ public class TelegramConfig {
         this.props = props;
     }
 
+    /**
+     * Depends on the tracker so that it drains before the tracker writes the final offset.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @DependsOn("updateOffsetTracker")
+    public UpdateDispatcher updateDispatcher() {
+        AppProperties.Dispatcher cfg = props.getDispatcher();
+        return new UpdateDispatcher(cfg.getWorkers(), cfg.isVirtualThreads(), cfg.getQueueCapacity());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public UpdateOffsetTracker updateOffsetTracker(UpdateOffsetRepository repository) {
+        return new UpdateOffsetTracker(repository, props.getTelegramBotUsername(),
+                props.getUpdateOffset().getFlushInterval());
+    }
+
     @Bean
     public TestDriveBot testDriveBot(UserService userService,
                                      CarService carService,
-                                     BookingService bookingService) throws Exception {
+                                     BookingService bookingService,
+                                     AvailabilityService availabilityService,
+                                     UpdateDispatcher updateDispatcher,
+                                     UpdateOffsetTracker updateOffsetTracker,
+                                     ReminderScheduler reminderScheduler,
+                                     MeterRegistry meterRegistry) throws Exception {
         if (!StringUtils.hasText(props.getTelegramBotToken()) ||
                 !StringUtils.hasText(props.getTelegramBotUsername())) {
             throw new TelegramApiException("Bot token and username can't be empty");
         }
+        if (props.getWebhook().isEnabled() && !StringUtils.hasText(props.getWebhook().getUrl())) {
+            throw new TelegramApiException("Webhook URL can't be empty when webhook mode is enabled");
+        }
 
-        TestDriveBot bot = new TestDriveBot(props, userService, carService, bookingService);
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(props.getTelegramApiUrl());
+        options.setMaxThreads(props.getSender().getHttpThreads());
 
-        TelegramBotsApi api = new TelegramBotsApi(DefaultBotSession.class);
-        api.registerBot(bot);
-        bot.registerCommands();
+        TestDriveBot bot = new TestDriveBot(options, props, userService, carService, bookingService,
+                availabilityService, updateDispatcher, updateOffsetTracker, meterRegistry);
+        reminderScheduler.attach(bot::sendReminders);
 
         return bot;
     }
+
+    /**
+     * Long polling (default mode), resumed from the stored offset.
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "app.webhook", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public UpdatePoller updatePoller(TestDriveBot bot, UpdateOffsetTracker updateOffsetTracker) throws TelegramApiException {
+        bot.clearWebhook();
+        UpdatePoller poller = new UpdatePoller(bot, updateOffsetTracker, (DefaultBotOptions) bot.getOptions());
+        poller.start();
+        bot.registerCommands();
+        return poller;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public OutboundSender outboundSender(TestDriveBot bot) {
+        return bot.getSender();
+    }
+
+    /**
+     * In webhook mode the webhook is registered once the web server accepts requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerWebhook(ApplicationReadyEvent event) {
+        if (!props.getWebhook().isEnabled()) {
+            return;
+        }
+        ObjectProvider<TestDriveBot> bot = event.getApplicationContext().getBeanProvider(TestDriveBot.class);
+        bot.ifAvailable(b -> {
+            b.registerWebhook(props.getWebhook().getUrl(), props.getWebhook().getSecretToken());
+            b.registerCommands();
+        });
+    }
 }
@@ -0,0 +1,49 @@
+package io.mitrofanovbp.testdrivebot.controller;
+
+import io.mitrofanovbp.testdrivebot.dto.CarAvailabilityDto;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
+import io.mitrofanovbp.testdrivebot.service.AvailabilityService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Admin REST controller for cross-car availability searches.
+ */
+@RestController
+@RequestMapping("/api/admin/availability")
+public class AdminAvailabilityController {
+
+    private static final int MAX_DAYS = 60;
+
+    private final AvailabilityService availability;
+
+    public AdminAvailabilityController(AvailabilityService availability) {
+        this.availability = availability;
+    }
+
+    /**
+     * Cars that are free at the given slot.
+     */
+    @GetMapping("/free-cars")
+    public List<CarDto> freeCars(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime slot) {
+        return availability.freeCarsAt(slot);
+    }
+
+    /**
+     * Earliest free slot per car within the next {@code days} days.
+     */
+    @GetMapping("/earliest")
+    public List<CarAvailabilityDto> earliest(@RequestParam(defaultValue = "14") int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new BadRequestException("days must be between 1 and " + MAX_DAYS);
+        }
+        return availability.earliestFreeSlots(days);
+    }
+}
@@ -1,11 +1,24 @@
 package io.mitrofanovbp.testdrivebot.controller;
 
-import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mitrofanovbp.testdrivebot.dto.BookingFilter;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportRequest;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportResultDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingPageDto;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.service.BookingImportService;
 import io.mitrofanovbp.testdrivebot.service.BookingService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 
 /**
  * Admin REST controller for bookings.
@@ -14,15 +27,87 @@ import java.util.List;
 @RequestMapping("/api/admin/bookings")
 public class AdminBookingController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final BookingImportService importService;
+    private final ObjectMapper mapper;
 
-    public AdminBookingController(BookingService bookingService) {
+    public AdminBookingController(BookingService bookingService, BookingImportService importService, ObjectMapper mapper) {
         this.bookingService = bookingService;
+        this.importService = importService;
+        this.mapper = mapper;
     }
 
+    /**
+     * Full listing as a JSON array, written row by row from a DB cursor.
+     * Prefer /page or /export for large tables. Written on the request thread, like /export.
+     */
     @GetMapping
-    public List<BookingAdminDto> listAll() {
-        return bookingService.getAllForAdmin();
+    public void listAll(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        out.write('[');
+        boolean[] first = {true};
+        bookingService.exportForAdmin(null, row -> {
+            try {
+                if (!first[0]) {
+                    out.write(',');
+                }
+                first[0] = false;
+                out.write(mapper.writeValueAsBytes(row));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(']');
+    }
+
+    /**
+     * Keyset-paginated listing; pass the returned nextCursor to get the following page.
+     */
+    @GetMapping("/page")
+    public BookingPageDto page(@RequestParam(required = false) String cursor,
+                               @RequestParam(defaultValue = "50") int limit,
+                               @RequestParam(required = false) Long carId,
+                               @RequestParam(required = false) Long userId,
+                               @RequestParam(required = false) BookingStatus status,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return bookingService.getPageForAdmin(new BookingFilter(carId, userId, status, from, to), cursor, limit);
+    }
+
+    /**
+     * Streams matching bookings as NDJSON (one BookingAdminDto per line) straight from a DB cursor.
+     * Written on the request thread rather than as an async response, so no async request timeout
+     * cuts a long export short.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(required = false) Long carId,
+                       @RequestParam(required = false) Long userId,
+                       @RequestParam(required = false) BookingStatus status,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                       HttpServletResponse response) throws IOException {
+        BookingFilter filter = new BookingFilter(carId, userId, status, from, to);
+        response.setContentType(NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        bookingService.exportForAdmin(filter, row -> {
+            try {
+                out.write(mapper.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Bulk import of pre-arranged bookings; returns a per-row report (CREATED / CONFLICT / CAR_NOT_FOUND / INVALID).
+     */
+    @PostMapping("/import")
+    public BookingImportResultDto importBookings(@RequestBody @Valid BookingImportRequest req) {
+        return importService.importBookings(req.getRows());
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,53 @@
+package io.mitrofanovbp.testdrivebot.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.mitrofanovbp.testdrivebot.dto.CacheStatsDto;
+import io.mitrofanovbp.testdrivebot.dto.DispatcherStatsDto;
+import io.mitrofanovbp.testdrivebot.dto.SenderStatsDto;
+import io.mitrofanovbp.testdrivebot.service.UserService;
+import io.mitrofanovbp.testdrivebot.telegram.OutboundSender;
+import io.mitrofanovbp.testdrivebot.telegram.UpdateDispatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin REST controller exposing runtime statistics of the bot pipeline.
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+public class AdminStatsController {
+
+    private final UpdateDispatcher dispatcher;
+    private final UserService userService;
+    private final OutboundSender sender;
+
+    public AdminStatsController(UpdateDispatcher dispatcher, UserService userService, OutboundSender sender) {
+        this.dispatcher = dispatcher;
+        this.userService = userService;
+        this.sender = sender;
+    }
+
+    @GetMapping("/dispatcher")
+    public DispatcherStatsDto dispatcher() {
+        return new DispatcherStatsDto(
+                dispatcher.getWorkers(),
+                dispatcher.isVirtualThreads(),
+                dispatcher.getQueueDepth(),
+                dispatcher.getActiveKeys()
+        );
+    }
+
+    @GetMapping("/user-cache")
+    public CacheStatsDto userCache() {
+        CacheStats s = userService.cacheStats();
+        return new CacheStatsDto(userService.cacheSize(), s.hitCount(), s.missCount(), s.hitRate(), s.evictionCount());
+    }
+
+    @GetMapping("/sender")
+    public SenderStatsDto sender() {
+        double[] p = sender.latencyPercentilesMillis(0.5, 0.9, 0.99);
+        return new SenderStatsDto(sender.getQueueDepth(), sender.getSent(), sender.getRetried(),
+                sender.getFallbacks(), sender.getFailed(), p[0], p[1], p[2]);
+    }
+}
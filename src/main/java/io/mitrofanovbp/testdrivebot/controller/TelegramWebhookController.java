@@ -0,0 +1,57 @@
+package io.mitrofanovbp.testdrivebot.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
+import io.mitrofanovbp.testdrivebot.telegram.TestDriveBot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+
+/**
+ * Telegram webhook endpoint (active when app.webhook.enabled=true).
+ * Updates are parsed with the application ObjectMapper and fed to the same handling code as long polling.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "app.webhook", name = "enabled", havingValue = "true")
+public class TelegramWebhookController {
+
+    public static final String PATH = "/telegram/webhook";
+    public static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final TestDriveBot bot;
+    private final String secretToken;
+    private final ObjectReader updateReader;
+
+    public TelegramWebhookController(TestDriveBot bot, AppProperties props, ObjectMapper mapper) {
+        this.bot = bot;
+        this.secretToken = props.getWebhook().getSecretToken();
+        // Bot API adds fields over time; unknown ones must not break ingestion.
+        this.updateReader = mapper.readerFor(Update.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @PostMapping(PATH)
+    @ResponseStatus(HttpStatus.OK)
+    public void receive(@RequestHeader(value = SECRET_HEADER, required = false) String secret,
+                        @RequestBody byte[] body) throws IOException {
+        if (StringUtils.hasText(secretToken) && !secretToken.equals(secret)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid webhook secret");
+        }
+        Update update;
+        try {
+            update = updateReader.readValue(body);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed update payload");
+        }
+        bot.onUpdateReceived(update);
+    }
+}
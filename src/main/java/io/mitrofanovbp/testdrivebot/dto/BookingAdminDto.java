@@ -1,6 +1,7 @@
 package io.mitrofanovbp.testdrivebot.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
 
 import java.time.OffsetDateTime;
 
@@ -40,6 +41,14 @@ public class BookingAdminDto {
         this.status = status;
     }
 
+    /**
+     * Constructor expression target for JPQL projections.
+     */
+    public BookingAdminDto(Long id, Long userId, Long userTelegramId, String userName, String userUsername,
+                           Long carId, String carModel, OffsetDateTime datetime, BookingStatus status) {
+        this(id, userId, userTelegramId, userName, userUsername, carId, carModel, datetime, status.name());
+    }
+
     public Long getId() {
         return id;
     }
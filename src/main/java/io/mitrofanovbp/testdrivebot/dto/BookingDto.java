@@ -1,6 +1,7 @@
 package io.mitrofanovbp.testdrivebot.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
 
 import java.time.OffsetDateTime;
 
@@ -29,6 +30,13 @@ public class BookingDto {
         this.status = status;
     }
 
+    /**
+     * Constructor expression target for JPQL projections.
+     */
+    public BookingDto(Long id, Long carId, String carModel, OffsetDateTime datetime, BookingStatus status) {
+        this(id, carId, carModel, datetime, status.name());
+    }
+
     public Long getId() {
         return id;
     }
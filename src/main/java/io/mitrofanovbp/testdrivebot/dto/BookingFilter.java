@@ -0,0 +1,69 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Optional criteria for admin booking listings; null fields are not applied.
+ * Date range is [from, to).
+ */
+public class BookingFilter {
+
+    private Long carId;
+    private Long userId;
+    private BookingStatus status;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+
+    public BookingFilter() {
+    }
+
+    public BookingFilter(Long carId, Long userId, BookingStatus status, OffsetDateTime from, OffsetDateTime to) {
+        this.carId = carId;
+        this.userId = userId;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public OffsetDateTime getFrom() {
+        return from;
+    }
+
+    public OffsetDateTime getTo() {
+        return to;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+
+    public void setFrom(OffsetDateTime from) {
+        this.from = from;
+    }
+
+    public void setTo(OffsetDateTime to) {
+        this.to = to;
+    }
+}
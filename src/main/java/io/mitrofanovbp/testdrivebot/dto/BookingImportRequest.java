@@ -0,0 +1,29 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Bulk booking import. Rows are checked one by one; a bad row does not reject the request.
+ */
+public class BookingImportRequest {
+
+    public static final int MAX_ROWS = 10_000;
+
+    @NotEmpty
+    @Size(max = MAX_ROWS)
+    private List<BookingImportRow> rows;
+
+    public BookingImportRequest() {
+    }
+
+    public List<BookingImportRow> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<BookingImportRow> rows) {
+        this.rows = rows;
+    }
+}
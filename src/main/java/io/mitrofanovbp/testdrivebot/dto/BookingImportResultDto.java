@@ -0,0 +1,66 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import java.util.List;
+
+/**
+ * Bulk import report: totals plus one result per input row, in input order.
+ */
+public class BookingImportResultDto {
+
+    private int total;
+    private int created;
+    private int conflicts;
+    private int rejected;
+    private List<BookingImportRowResult> rows;
+
+    public BookingImportResultDto() {
+    }
+
+    public BookingImportResultDto(int total, int created, int conflicts, int rejected, List<BookingImportRowResult> rows) {
+        this.total = total;
+        this.created = created;
+        this.conflicts = conflicts;
+        this.rejected = rejected;
+        this.rows = rows;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BookingImportRowResult> getRows() {
+        return rows;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public void setConflicts(int conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setRows(List<BookingImportRowResult> rows) {
+        this.rows = rows;
+    }
+}
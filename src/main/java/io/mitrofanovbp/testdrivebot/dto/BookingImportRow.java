@@ -0,0 +1,46 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One pre-arranged test drive in a bulk import.
+ */
+public class BookingImportRow {
+
+    private Long telegramId;
+    private Long carId;
+    private OffsetDateTime datetime;
+
+    public BookingImportRow() {
+    }
+
+    public BookingImportRow(Long telegramId, Long carId, OffsetDateTime datetime) {
+        this.telegramId = telegramId;
+        this.carId = carId;
+        this.datetime = datetime;
+    }
+
+    public Long getTelegramId() {
+        return telegramId;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public OffsetDateTime getDatetime() {
+        return datetime;
+    }
+
+    public void setTelegramId(Long telegramId) {
+        this.telegramId = telegramId;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public void setDatetime(OffsetDateTime datetime) {
+        this.datetime = datetime;
+    }
+}
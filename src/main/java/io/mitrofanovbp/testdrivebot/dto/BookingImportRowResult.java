@@ -0,0 +1,45 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+/**
+ * Outcome of one import row.
+ * Status: CREATED, CONFLICT (slot already booked), CAR_NOT_FOUND or INVALID.
+ */
+public class BookingImportRowResult {
+
+    private int index;
+    private String status;
+    private String message;
+
+    public BookingImportRowResult() {
+    }
+
+    public BookingImportRowResult(int index, String status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
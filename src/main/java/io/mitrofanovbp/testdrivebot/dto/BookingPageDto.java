@@ -0,0 +1,36 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import java.util.List;
+
+/**
+ * One page of admin bookings. {@code nextCursor} is null on the last page.
+ */
+public class BookingPageDto {
+
+    private List<BookingAdminDto> items;
+    private String nextCursor;
+
+    public BookingPageDto() {
+    }
+
+    public BookingPageDto(List<BookingAdminDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookingAdminDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setItems(List<BookingAdminDto> items) {
+        this.items = items;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
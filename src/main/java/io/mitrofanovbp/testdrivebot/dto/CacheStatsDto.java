@@ -0,0 +1,64 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+/**
+ * Cache statistics snapshot for admin monitoring.
+ */
+public class CacheStatsDto {
+
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+
+    public CacheStatsDto() {
+    }
+
+    public CacheStatsDto(long size, long hits, long misses, double hitRate, long evictions) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+}
@@ -0,0 +1,50 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Earliest free slot of a car; {@code earliestFreeSlot} is null when the car is booked out for the searched window.
+ */
+public class CarAvailabilityDto {
+
+    private Long carId;
+    private String carModel;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime earliestFreeSlot;
+
+    public CarAvailabilityDto() {
+    }
+
+    public CarAvailabilityDto(Long carId, String carModel, OffsetDateTime earliestFreeSlot) {
+        this.carId = carId;
+        this.carModel = carModel;
+        this.earliestFreeSlot = earliestFreeSlot;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public String getCarModel() {
+        return carModel;
+    }
+
+    public OffsetDateTime getEarliestFreeSlot() {
+        return earliestFreeSlot;
+    }
+
+    public void setCarId(Long carId) {
+        this.carId = carId;
+    }
+
+    public void setCarModel(String carModel) {
+        this.carModel = carModel;
+    }
+
+    public void setEarliestFreeSlot(OffsetDateTime earliestFreeSlot) {
+        this.earliestFreeSlot = earliestFreeSlot;
+    }
+}
@@ -0,0 +1,54 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+/**
+ * Update dispatcher snapshot for admin monitoring.
+ */
+public class DispatcherStatsDto {
+
+    private int workers;
+    private boolean virtualThreads;
+    private int queueDepth;
+    private int activeChats;
+
+    public DispatcherStatsDto() {
+    }
+
+    public DispatcherStatsDto(int workers, boolean virtualThreads, int queueDepth, int activeChats) {
+        this.workers = workers;
+        this.virtualThreads = virtualThreads;
+        this.queueDepth = queueDepth;
+        this.activeChats = activeChats;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getActiveChats() {
+        return activeChats;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public void setActiveChats(int activeChats) {
+        this.activeChats = activeChats;
+    }
+}
@@ -0,0 +1,95 @@
+package io.mitrofanovbp.testdrivebot.dto;
+
+/**
+ * Outbound Telegram sender snapshot for admin monitoring. Latencies are in milliseconds.
+ */
+public class SenderStatsDto {
+
+    private int queueDepth;
+    private long sent;
+    private long retried;
+    private long fallbacks;
+    private long failed;
+    private double latencyP50;
+    private double latencyP90;
+    private double latencyP99;
+
+    public SenderStatsDto() {
+    }
+
+    public SenderStatsDto(int queueDepth, long sent, long retried, long fallbacks, long failed,
+                          double latencyP50, double latencyP90, double latencyP99) {
+        this.queueDepth = queueDepth;
+        this.sent = sent;
+        this.retried = retried;
+        this.fallbacks = fallbacks;
+        this.failed = failed;
+        this.latencyP50 = latencyP50;
+        this.latencyP90 = latencyP90;
+        this.latencyP99 = latencyP99;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getRetried() {
+        return retried;
+    }
+
+    public long getFallbacks() {
+        return fallbacks;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public double getLatencyP50() {
+        return latencyP50;
+    }
+
+    public double getLatencyP90() {
+        return latencyP90;
+    }
+
+    public double getLatencyP99() {
+        return latencyP99;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    public void setRetried(long retried) {
+        this.retried = retried;
+    }
+
+    public void setFallbacks(long fallbacks) {
+        this.fallbacks = fallbacks;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public void setLatencyP50(double latencyP50) {
+        this.latencyP50 = latencyP50;
+    }
+
+    public void setLatencyP90(double latencyP90) {
+        this.latencyP90 = latencyP90;
+    }
+
+    public void setLatencyP99(double latencyP99) {
+        this.latencyP99 = latencyP99;
+    }
+}
@@ -11,9 +11,9 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "bookings",
         indexes = {
-                @Index(name = "idx_bookings_user_id", columnList = "user_id"),
-                @Index(name = "idx_bookings_car_id", columnList = "car_id"),
-                @Index(name = "idx_bookings_datetime", columnList = "datetime")
+                @Index(name = "idx_bookings_user_datetime", columnList = "user_id, datetime DESC, id DESC"),
+                @Index(name = "idx_bookings_car_datetime", columnList = "car_id, datetime DESC, id DESC"),
+                @Index(name = "idx_bookings_datetime_id", columnList = "datetime DESC, id DESC")
         })
 public class Booking {
 
@@ -0,0 +1,72 @@
+package io.mitrofanovbp.testdrivebot.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Past booking moved out of {@code bookings} by the archiver; keeps the original id.
+ * Read-only for the application.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_history",
+        indexes = {
+                @Index(name = "idx_bookings_history_user_datetime", columnList = "user_id, datetime DESC, id DESC"),
+                @Index(name = "idx_bookings_history_car_datetime", columnList = "car_id, datetime DESC, id DESC"),
+                @Index(name = "idx_bookings_history_datetime_id", columnList = "datetime DESC, id DESC")
+        })
+public class BookingHistory {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "car_id", nullable = false)
+    private Car car;
+
+    @Column(name = "datetime", nullable = false, columnDefinition = "TIMESTAMPTZ")
+    private OffsetDateTime datetime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BookingStatus status;
+
+    /**
+     * When the row was moved to the archive.
+     */
+    @Column(name = "archived_at", nullable = false, columnDefinition = "TIMESTAMPTZ")
+    private OffsetDateTime archivedAt;
+
+    public BookingHistory() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Car getCar() {
+        return car;
+    }
+
+    public OffsetDateTime getDatetime() {
+        return datetime;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public OffsetDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -40,6 +40,14 @@ public class User {
         this.name = name;
     }
 
+    /**
+     * Detached copy of an already persisted user (e.g. restored from a cache).
+     */
+    public User(Long id, Long telegramId, String username, String name) {
+        this(telegramId, username, name);
+        this.id = id;
+    }
+
 
     public Long getId() {
         return id;
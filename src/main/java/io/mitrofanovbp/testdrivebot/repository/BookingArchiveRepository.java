@@ -0,0 +1,41 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Moves past bookings into {@code bookings_history} with plain JDBC.
+ */
+@Repository
+public class BookingArchiveRepository {
+
+    /**
+     * Deletes up to {@code limit} rows older than the cutoff and inserts them into the archive in one statement.
+     * SKIP LOCKED leaves rows held by concurrent transactions for the next chunk. An id already present in the
+     * archive fails the statement, so the whole chunk rolls back and no live row is deleted without its copy.
+     */
+    static final String MOVE_BATCH =
+            "WITH moved AS (" +
+                    "DELETE FROM bookings WHERE id IN (" +
+                    "SELECT id FROM bookings WHERE datetime < ? ORDER BY datetime LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING id, user_id, car_id, datetime, status) " +
+                    "INSERT INTO bookings_history (id, user_id, car_id, datetime, status) " +
+                    "SELECT id, user_id, car_id, datetime, status FROM moved";
+
+    private final JdbcTemplate jdbc;
+
+    public BookingArchiveRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Moves one chunk; runs in its own short transaction when called outside one.
+     *
+     * @return number of rows moved
+     */
+    public int moveBatch(OffsetDateTime before, int limit) {
+        return jdbc.update(MOVE_BATCH, before, limit);
+    }
+}
@@ -0,0 +1,104 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain JDBC batch writes for bulk imports, bypassing the persistence context.
+ * <p>
+ * Relies on per-statement update counts, so the driver must not rewrite batches
+ * (keep PostgreSQL's reWriteBatchedInserts off).
+ */
+@Repository
+public class BookingBatchRepository {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_USER_IF_ABSENT =
+            "INSERT INTO users (telegram_id) VALUES (?) ON CONFLICT (telegram_id) DO NOTHING";
+
+    private static final String SELECT_USER_IDS =
+            "SELECT id, telegram_id FROM users WHERE telegram_id = ANY (?)";
+
+    /**
+     * KEY SHARE blocks deletion of the cars until commit, so the booking inserts cannot hit the car foreign key.
+     */
+    private static final String LOCK_CARS =
+            "SELECT id FROM cars WHERE id = ANY (?) FOR KEY SHARE";
+
+    private static final String INSERT_CONFIRMED_IF_FREE =
+            "INSERT INTO bookings (user_id, car_id, datetime, status) VALUES (?, ?, ?, 'CONFIRMED') " +
+                    "ON CONFLICT (car_id, datetime) WHERE status = 'CONFIRMED' DO NOTHING";
+
+    private final JdbcTemplate jdbc;
+
+    public BookingBatchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Creates missing users (without profile data) and returns user ids keyed by Telegram id.
+     */
+    public Map<Long, Long> ensureUsers(Collection<Long> telegramIds) {
+        jdbc.batchUpdate(INSERT_USER_IF_ABSENT, List.copyOf(telegramIds), BATCH_SIZE,
+                (ps, telegramId) -> ps.setLong(1, telegramId));
+        Map<Long, Long> ids = new HashMap<>(telegramIds.size() * 2);
+        jdbc.query(SELECT_USER_IDS, ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", telegramIds.toArray());
+            ps.setArray(1, array);
+        }, rs -> {
+            ids.put(rs.getLong("telegram_id"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    /**
+     * Locks the existing cars among the given ids against deletion until the transaction ends.
+     *
+     * @return ids of the cars that exist
+     */
+    public Set<Long> lockCars(Collection<Long> carIds) {
+        Set<Long> existing = new HashSet<>(carIds.size() * 2);
+        jdbc.query(LOCK_CARS, ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", carIds.toArray());
+            ps.setArray(1, array);
+        }, rs -> {
+            existing.add(rs.getLong("id"));
+        });
+        return existing;
+    }
+
+    /**
+     * Batch variant of {@link BookingRepositoryCustom#insertConfirmedIfFree}; the cars must be locked first
+     * ({@link #lockCars}).
+     *
+     * @return per-row update count in input order: 1 if inserted, 0 if the slot was taken
+     */
+    public int[] insertConfirmedIfFree(List<NewBooking> rows) {
+        int[][] batches = jdbc.batchUpdate(INSERT_CONFIRMED_IF_FREE, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setLong(2, row.carId());
+            ps.setObject(3, row.datetime());
+        });
+        int[] counts = new int[rows.size()];
+        int i = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                counts[i++] = count;
+            }
+        }
+        return counts;
+    }
+
+    public record NewBooking(long userId, long carId, OffsetDateTime datetime) {
+    }
+}
@@ -0,0 +1,17 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Projection of a confirmed booking for reminders: who to notify, which car and when.
+ */
+public interface BookingReminderView {
+
+    Long getId();
+
+    Long getTelegramId();
+
+    Long getCarId();
+
+    OffsetDateTime getDatetime();
+}
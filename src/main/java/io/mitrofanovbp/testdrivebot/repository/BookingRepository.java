@@ -1,37 +1,78 @@
 package io.mitrofanovbp.testdrivebot.repository;
 
+import io.mitrofanovbp.testdrivebot.dto.BookingDto;
 import io.mitrofanovbp.testdrivebot.model.Booking;
 import io.mitrofanovbp.testdrivebot.model.BookingStatus;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for bookings.
  */
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
     /**
-     * Returns bookings for a user with given status ordered by datetime.
+     * Returns bookings for a user with given status ordered by datetime, projected into DTOs
+     * with the car model joined in one query (no entity hydration, no lazy car loads).
      */
-    List<Booking> findByUserIdAndStatusOrderByDatetimeAsc(Long userId, BookingStatus status);
+    @Query("select new io.mitrofanovbp.testdrivebot.dto.BookingDto(b.id, c.id, c.model, b.datetime, b.status) " +
+            "from Booking b join b.car c " +
+            "where b.user.id = :userId and b.status = :status order by b.datetime asc")
+    List<BookingDto> findDtosByUserIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status);
 
     /**
-     * Eagerly fetch user and car for admin listings.
+     * Find booking by id and user id (used for idempotent cancel).
      */
-    @EntityGraph(attributePaths = {"user", "car"})
-    List<Booking> findAllByOrderByDatetimeDesc();
+    Optional<Booking> findByIdAndUserId(Long id, Long userId);
 
     /**
-     * Find booking by id and user id (used for idempotent cancel).
+     * CONFIRMED slot timestamps for a car within [from, to) in a single query.
+     * The status is a literal, so the planner can match the uq_booking_car_slot_confirmed partial index
+     * even for a generic plan.
      */
-    Optional<Booking> findByIdAndUserId(Long id, Long userId);
+    @Query("select b.datetime from Booking b " +
+            "where b.car.id = :carId and b.status = io.mitrofanovbp.testdrivebot.model.BookingStatus.CONFIRMED " +
+            "and b.datetime >= :from and b.datetime < :to")
+    List<OffsetDateTime> findConfirmedSlotsByCarIdBetween(@Param("carId") Long carId,
+                                                          @Param("from") OffsetDateTime from,
+                                                          @Param("to") OffsetDateTime to);
+
+    /**
+     * Slots of all cars with given status within [from, to) in a single query (cross-car availability).
+     */
+    @Query("select b.car.id as carId, b.datetime as datetime from Booking b " +
+            "where b.status = :status and b.datetime >= :from and b.datetime < :to")
+    List<BookingSlotView> findSlotsByStatusBetween(@Param("status") BookingStatus status,
+                                                   @Param("from") OffsetDateTime from,
+                                                   @Param("to") OffsetDateTime to);
+
+    /**
+     * All slots with given status starting from the given moment (occupancy index warm-up).
+     */
+    @Query("select b.car.id as carId, b.datetime as datetime from Booking b " +
+            "where b.status = :status and b.datetime >= :from")
+    List<BookingSlotView> findSlotsByStatusFrom(@Param("status") BookingStatus status,
+                                                @Param("from") OffsetDateTime from);
+
+    /**
+     * Bookings with given status starting within [from, to), with the owner's Telegram id (reminder window).
+     */
+    @Query("select b.id as id, u.telegramId as telegramId, b.car.id as carId, b.datetime as datetime " +
+            "from Booking b join b.user u " +
+            "where b.status = :status and b.datetime >= :from and b.datetime < :to")
+    List<BookingReminderView> findRemindersByStatusBetween(@Param("status") BookingStatus status,
+                                                           @Param("from") OffsetDateTime from,
+                                                           @Param("to") OffsetDateTime to);
 
     /**
-     * Count confirmed bookings for given car and datetime (shadow check; DB enforces partial unique index).
+     * Ids among the given ones that still have the given status.
      */
-    long countByCarIdAndDatetimeAndStatus(Long carId, OffsetDateTime datetime, BookingStatus status);
+    @Query("select b.id from Booking b where b.id in :ids and b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
 }
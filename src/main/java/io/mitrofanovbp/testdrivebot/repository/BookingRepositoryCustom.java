@@ -0,0 +1,42 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingFilter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Booking queries that do not fit derived/annotated repository methods.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Inserts a CONFIRMED booking unless the slot is already taken, in one statement
+     * ({@code INSERT ... ON CONFLICT DO NOTHING RETURNING id} against uq_booking_car_slot_confirmed).
+     *
+     * @return id of the new booking, or null if the slot is taken
+     */
+    Long insertConfirmedIfFree(Long userId, Long carId, OffsetDateTime datetime);
+
+    /**
+     * Deletes an archived booking.
+     *
+     * @return number of rows deleted (0 or 1)
+     */
+    int deleteArchivedById(Long id);
+
+    /* Admin listings with dynamic filters over live and archived bookings,
+       projected straight into DTOs, ordered by (datetime desc, id desc). */
+
+    /**
+     * Keyset page: rows strictly after the (afterDatetime, afterId) position; both null for the first page.
+     */
+    List<BookingAdminDto> findAdminPage(BookingFilter filter, OffsetDateTime afterDatetime, Long afterId, int limit);
+
+    /**
+     * Streams all matching rows through a JDBC cursor. Must be consumed inside a transaction and closed.
+     */
+    Stream<BookingAdminDto> streamAdmin(BookingFilter filter);
+}
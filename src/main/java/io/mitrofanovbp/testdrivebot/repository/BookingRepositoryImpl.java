@@ -0,0 +1,193 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * JPQL / native SQL implementation of {@link BookingRepositoryCustom}.
+ * Admin listings read the live table and the archive with the same query and merge the two ordered results.
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String SELECT_ADMIN_DTO =
+            "select new io.mitrofanovbp.testdrivebot.dto.BookingAdminDto(" +
+                    "b.id, u.id, u.telegramId, u.name, u.username, c.id, c.model, b.datetime, b.status) " +
+                    "from %s b join b.user u join b.car c";
+
+    private static final String LIVE = "Booking";
+    private static final String ARCHIVE = "BookingHistory";
+
+    /**
+     * Listing order: datetime desc, id desc (ids are unique across both tables).
+     */
+    private static final Comparator<BookingAdminDto> ADMIN_ORDER =
+            Comparator.comparing(BookingAdminDto::getDatetime)
+                    .thenComparing(BookingAdminDto::getId)
+                    .reversed();
+
+    private static final String INSERT_CONFIRMED_IF_FREE =
+            "INSERT INTO bookings (user_id, car_id, datetime, status) " +
+                    "VALUES (:userId, :carId, :datetime, 'CONFIRMED') " +
+                    "ON CONFLICT (car_id, datetime) WHERE status = 'CONFIRMED' DO NOTHING " +
+                    "RETURNING id";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Long insertConfirmedIfFree(Long userId, Long carId, OffsetDateTime datetime) {
+        List<?> ids = em.createNativeQuery(INSERT_CONFIRMED_IF_FREE)
+                .setParameter("userId", userId)
+                .setParameter("carId", carId)
+                .setParameter("datetime", datetime)
+                .getResultList();
+        return ids.isEmpty() ? null : ((Number) ids.get(0)).longValue();
+    }
+
+    @Override
+    public int deleteArchivedById(Long id) {
+        return em.createNativeQuery("DELETE FROM bookings_history WHERE id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<BookingAdminDto> findAdminPage(BookingFilter filter, OffsetDateTime afterDatetime, Long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = conditions(filter, params);
+        if (afterDatetime != null && afterId != null) {
+            and(where).append("(b.datetime < :afterDt or (b.datetime = :afterDt and b.id < :afterId))");
+            params.put("afterDt", afterDatetime);
+            params.put("afterId", afterId);
+        }
+        List<BookingAdminDto> live = query(LIVE, where, params).setMaxResults(limit).getResultList();
+        List<BookingAdminDto> archived = query(ARCHIVE, where, params).setMaxResults(limit).getResultList();
+        return mergePage(live, archived, limit);
+    }
+
+    /**
+     * First {@code limit} rows of two pages already sorted in {@link #ADMIN_ORDER}.
+     */
+    static List<BookingAdminDto> mergePage(List<BookingAdminDto> live, List<BookingAdminDto> archived, int limit) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<BookingAdminDto> page = new ArrayList<>(Math.min(limit, live.size() + archived.size()));
+        Iterator<BookingAdminDto> merged = merge(live.iterator(), archived.iterator());
+        while (merged.hasNext() && page.size() < limit) {
+            page.add(merged.next());
+        }
+        return page;
+    }
+
+    @Override
+    public Stream<BookingAdminDto> streamAdmin(BookingFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = conditions(filter, params);
+        Stream<BookingAdminDto> live = cursor(query(LIVE, where, params));
+        Stream<BookingAdminDto> archived = cursor(query(ARCHIVE, where, params));
+        Iterator<BookingAdminDto> merged = merge(live.iterator(), archived.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(live::close)
+                .onClose(archived::close);
+    }
+
+    private static Stream<BookingAdminDto> cursor(TypedQuery<BookingAdminDto> q) {
+        q.setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        q.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return q.getResultStream();
+    }
+
+    /**
+     * Merges two iterators already sorted in {@link #ADMIN_ORDER}, lazily.
+     * A row archived between the live and the archive query is read from both tables; it is emitted once.
+     */
+    static Iterator<BookingAdminDto> merge(Iterator<BookingAdminDto> a, Iterator<BookingAdminDto> b) {
+        return new Iterator<>() {
+            private BookingAdminDto nextA = a.hasNext() ? a.next() : null;
+            private BookingAdminDto nextB = b.hasNext() ? b.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextA != null || nextB != null;
+            }
+
+            @Override
+            public BookingAdminDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (nextA != null && nextB != null && nextA.getId().equals(nextB.getId())) {
+                    nextB = b.hasNext() ? b.next() : null;
+                }
+                BookingAdminDto out;
+                if (nextB == null || (nextA != null && ADMIN_ORDER.compare(nextA, nextB) <= 0)) {
+                    out = nextA;
+                    nextA = a.hasNext() ? a.next() : null;
+                } else {
+                    out = nextB;
+                    nextB = b.hasNext() ? b.next() : null;
+                }
+                return out;
+            }
+        };
+    }
+
+    private TypedQuery<BookingAdminDto> query(String entity, StringBuilder where, Map<String, Object> params) {
+        String jpql = SELECT_ADMIN_DTO.formatted(entity) + where + " order by b.datetime desc, b.id desc";
+        TypedQuery<BookingAdminDto> q = em.createQuery(jpql, BookingAdminDto.class);
+        params.forEach(q::setParameter);
+        return q;
+    }
+
+    private static StringBuilder conditions(BookingFilter f, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (f == null) {
+            return where;
+        }
+        if (f.getCarId() != null) {
+            and(where).append("c.id = :carId");
+            params.put("carId", f.getCarId());
+        }
+        if (f.getUserId() != null) {
+            and(where).append("u.id = :userId");
+            params.put("userId", f.getUserId());
+        }
+        if (f.getStatus() != null) {
+            and(where).append("b.status = :status");
+            params.put("status", f.getStatus());
+        }
+        if (f.getFrom() != null) {
+            and(where).append("b.datetime >= :from");
+            params.put("from", f.getFrom());
+        }
+        if (f.getTo() != null) {
+            and(where).append("b.datetime < :to");
+            params.put("to", f.getTo());
+        }
+        return where;
+    }
+
+    private static StringBuilder and(StringBuilder where) {
+        return where.append(where.isEmpty() ? " where " : " and ");
+    }
+}
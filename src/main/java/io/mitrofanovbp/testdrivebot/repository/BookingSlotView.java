@@ -0,0 +1,13 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Lightweight projection of an occupied slot (car id + datetime).
+ */
+public interface BookingSlotView {
+
+    Long getCarId();
+
+    OffsetDateTime getDatetime();
+}
@@ -1,10 +1,20 @@
 package io.mitrofanovbp.testdrivebot.repository;
 
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
 import io.mitrofanovbp.testdrivebot.model.Car;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 /**
  * Repository for cars.
  */
 public interface CarRepository extends JpaRepository<Car, Long> {
+
+    /**
+     * All cars ordered by id, projected into DTOs (no managed entities).
+     */
+    @Query("select new io.mitrofanovbp.testdrivebot.dto.CarDto(c.id, c.model, c.description) from Car c order by c.id")
+    List<CarDto> findAllDtos();
 }
@@ -0,0 +1,48 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Last fully processed Telegram update id per bot.
+ */
+@Repository
+public class UpdateOffsetRepository {
+
+    /**
+     * Stored offset and when it last changed.
+     */
+    public record StoredOffset(long updateId, Instant updatedAt) {
+    }
+
+    private static final String SELECT_OFFSET =
+            "SELECT update_id, updated_at FROM bot_update_offsets WHERE bot_username = ?";
+
+    private static final String UPSERT_OFFSET =
+            "INSERT INTO bot_update_offsets (bot_username, update_id, updated_at) VALUES (?, ?, now()) " +
+                    "ON CONFLICT (bot_username) DO UPDATE " +
+                    "SET update_id = EXCLUDED.update_id, updated_at = now()";
+
+    private final JdbcTemplate jdbc;
+
+    public UpdateOffsetRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<StoredOffset> find(String botUsername) {
+        List<StoredOffset> rows = jdbc.query(SELECT_OFFSET, (rs, i) -> new StoredOffset(
+                rs.getLong("update_id"), rs.getTimestamp("updated_at").toInstant()), botUsername);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Stores the offset as given: it moves backwards when Telegram starts a new id sequence.
+     */
+    public void save(String botUsername, long updateId) {
+        jdbc.update(UPSERT_OFFSET, botUsername, updateId);
+    }
+}
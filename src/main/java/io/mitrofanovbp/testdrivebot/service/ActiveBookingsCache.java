@@ -0,0 +1,54 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.dto.BookingDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Active (CONFIRMED) bookings per user id, as shown on the "My bookings" screen.
+ * <p>
+ * Every write that changes a user's active bookings must call {@link #evict}. The entry is dropped when the
+ * transaction commits, so a list loaded while the transaction was still open is not kept.
+ */
+@Component
+public class ActiveBookingsCache {
+
+    private final Cache<Long, List<BookingDto>> cache;
+
+    public ActiveBookingsCache(AppProperties props) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getActiveBookingsCache().getMaxSize())
+                .expireAfterWrite(props.getActiveBookingsCache().getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public List<BookingDto> get(Long userId, Function<Long, List<BookingDto>> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void evict(Long userId) {
+        AfterCommit.run(() -> cache.invalidate(userId));
+    }
+
+    /**
+     * Drops every entry (bulk changes such as archival).
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Publishes the cache as the {@code active-bookings} cache in Micrometer.
+     */
+    public void bindCacheMetrics(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "active-bookings");
+    }
+}
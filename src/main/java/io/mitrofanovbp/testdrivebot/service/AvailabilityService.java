@@ -0,0 +1,151 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.mitrofanovbp.testdrivebot.dto.CarAvailabilityDto;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingSlotView;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Availability lookups: free slots of a car over a range of days, and cross-car searches
+ * (cars free at a slot, earliest free slot per car).
+ * Occupancy comes from the in-memory index, or from a single range query until it is warmed;
+ * never one query per car.
+ */
+@Service
+public class AvailabilityService {
+
+    private final SlotOccupancyIndex occupancy;
+    private final BookingRepository bookings;
+    private final CarService cars;
+
+    public AvailabilityService(SlotOccupancyIndex occupancy, BookingRepository bookings, CarService cars) {
+        this.occupancy = occupancy;
+        this.bookings = bookings;
+        this.cars = cars;
+    }
+
+    /**
+     * Free-slot mask (see {@link SlotGrid}) for each day of [start, start + days).
+     */
+    public int[] freeMasks(Long carId, LocalDate start, int days) {
+        int[] taken = occupancy.isReady() ? indexedMasks(carId, start, days) : loadOccupiedMasks(carId, start, days);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int[] free = new int[days];
+        for (int i = 0; i < days; i++) {
+            free[i] = SlotGrid.futureMask(start.plusDays(i), now) & ~taken[i];
+        }
+        return free;
+    }
+
+    /**
+     * Number of free slots for each day of [start, start + days).
+     */
+    public int[] freeSlotCounts(Long carId, LocalDate start, int days) {
+        int[] counts = freeMasks(carId, start, days);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = Integer.bitCount(counts[i]);
+        }
+        return counts;
+    }
+
+    /**
+     * Cars (catalog order) that have the given slot free.
+     */
+    public List<CarDto> freeCarsAt(OffsetDateTime slot) {
+        OffsetDateTime slotUtc = slot.withOffsetSameInstant(ZoneOffset.UTC);
+        BookingService.validateSlot(slotUtc);
+        int bit = SlotGrid.bit(slotUtc);
+        Occupancy taken = allCars(slotUtc.toLocalDate(), 1);
+        List<CarDto> free = new ArrayList<>();
+        for (CarDto car : cars.catalog().getCars()) {
+            if ((taken.mask(car.getId(), 0) & bit) == 0) {
+                free.add(car);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Earliest free slot of every car within the next {@code days} days (today included),
+     * ordered by slot; cars with nothing free are last with a null slot.
+     */
+    public List<CarAvailabilityDto> earliestFreeSlots(int days) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Occupancy taken = allCars(today, days);
+        List<CarAvailabilityDto> result = new ArrayList<>();
+        for (CarDto car : cars.catalog().getCars()) {
+            OffsetDateTime earliest = null;
+            for (int i = 0; i < days && earliest == null; i++) {
+                LocalDate day = today.plusDays(i);
+                int free = SlotGrid.futureMask(day, now) & ~taken.mask(car.getId(), i);
+                if (free != 0) {
+                    earliest = SlotGrid.slotAt(day, Integer.numberOfTrailingZeros(free));
+                }
+            }
+            result.add(new CarAvailabilityDto(car.getId(), car.getModel(), earliest));
+        }
+        result.sort(Comparator.comparing(CarAvailabilityDto::getEarliestFreeSlot,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Occupied masks of all cars for [start, start + days): index lookups, or one query for every car.
+     */
+    private Occupancy allCars(LocalDate start, int days) {
+        if (occupancy.isReady()) {
+            return (carId, i) -> occupancy.occupiedMask(carId, start.plusDays(i));
+        }
+        Map<Long, int[]> loaded = new HashMap<>();
+        LocalDate last = start.plusDays(days - 1L);
+        for (BookingSlotView s : bookings.findSlotsByStatusBetween(BookingStatus.CONFIRMED,
+                SlotGrid.dayStart(start), SlotGrid.dayEnd(last))) {
+            long i = s.getDatetime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay() - start.toEpochDay();
+            if (i >= 0 && i < days) {
+                loaded.computeIfAbsent(s.getCarId(), k -> new int[days])[(int) i] |= SlotGrid.bit(s.getDatetime());
+            }
+        }
+        return (carId, i) -> {
+            int[] masks = loaded.get(carId);
+            return masks == null ? 0 : masks[i];
+        };
+    }
+
+    private int[] indexedMasks(Long carId, LocalDate start, int days) {
+        int[] masks = new int[days];
+        for (int i = 0; i < days; i++) {
+            masks[i] = occupancy.occupiedMask(carId, start.plusDays(i));
+        }
+        return masks;
+    }
+
+    private int[] loadOccupiedMasks(Long carId, LocalDate start, int days) {
+        int[] masks = new int[days];
+        LocalDate last = start.plusDays(days - 1L);
+        for (OffsetDateTime dt : bookings.findConfirmedSlotsByCarIdBetween(carId,
+                SlotGrid.dayStart(start), SlotGrid.dayEnd(last))) {
+            long i = dt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay() - start.toEpochDay();
+            if (i >= 0 && i < days) {
+                masks[(int) i] |= SlotGrid.bit(dt);
+            }
+        }
+        return masks;
+    }
+
+    @FunctionalInterface
+    private interface Occupancy {
+        int mask(Long carId, int dayOffset);
+    }
+}
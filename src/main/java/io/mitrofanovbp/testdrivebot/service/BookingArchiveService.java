@@ -0,0 +1,82 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.repository.BookingArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps {@code bookings} small: bookings that ended more than the retention period ago are moved
+ * into {@code bookings_history} in chunks, each chunk in its own short transaction, so row locks
+ * are held only for one chunk at a time. Admin listings read both tables; bot queries only the live one.
+ * Metric: {@code booking.archive.rows} counter.
+ */
+@Service
+public class BookingArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiveService.class);
+
+    private final BookingArchiveRepository archive;
+    private final ActiveBookingsCache activeBookings;
+    private final AppProperties.Archive cfg;
+    private final MeterRegistry meters;
+
+    public BookingArchiveService(BookingArchiveRepository archive, ActiveBookingsCache activeBookings,
+                                 AppProperties props, MeterRegistry meters) {
+        this.archive = archive;
+        this.activeBookings = activeBookings;
+        this.cfg = props.getArchive();
+        this.meters = meters;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}", zone = "UTC")
+    public void archiveScheduled() {
+        if (cfg.isEnabled()) {
+            archivePast();
+        }
+    }
+
+    /**
+     * Moves bookings before the cutoff (start of today UTC minus retention, never later than today).
+     *
+     * @return number of rows moved
+     */
+    public int archivePast() {
+        Duration retention = cfg.getRetention().isNegative() ? Duration.ZERO : cfg.getRetention();
+        OffsetDateTime cutoff = LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC).minus(retention);
+        int batchSize = Math.max(1, cfg.getBatchSize());
+        long pauseMs = cfg.getPause().toMillis();
+
+        int total = 0;
+        for (int chunk = 0; chunk < cfg.getMaxBatches(); chunk++) {
+            int moved = archive.moveBatch(cutoff, batchSize);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (total > 0) {
+            // archived CONFIRMED bookings leave "My bookings"
+            activeBookings.evictAll();
+            meters.counter("booking.archive.rows").increment(total);
+        }
+        log.info("Archived {} bookings older than {}", total, cutoff);
+        return total;
+    }
+}
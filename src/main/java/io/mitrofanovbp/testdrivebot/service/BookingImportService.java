@@ -0,0 +1,158 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportResultDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportRow;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportRowResult;
+import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
+import io.mitrofanovbp.testdrivebot.repository.BookingBatchRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingBatchRepository.NewBooking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk creation of pre-arranged bookings (dealership imports).
+ * <p>
+ * Rows are validated with the same rules as bot bookings, then written with JDBC batches in one
+ * transaction. Slots that are already taken (in the DB or earlier in the same import) and cars deleted
+ * after the catalog snapshot are reported per row instead of failing the import.
+ */
+@Service
+public class BookingImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingImportService.class);
+
+    public static final String CREATED = "CREATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String CAR_NOT_FOUND = "CAR_NOT_FOUND";
+    public static final String INVALID = "INVALID";
+
+    private final BookingBatchRepository batch;
+    private final CarService cars;
+    private final SlotOccupancyIndex occupancy;
+    private final ActiveBookingsCache activeBookings;
+    private final ReminderScheduler reminders;
+    private final MeterRegistry meters;
+
+    public BookingImportService(BookingBatchRepository batch, CarService cars, SlotOccupancyIndex occupancy,
+                                ActiveBookingsCache activeBookings, ReminderScheduler reminders, MeterRegistry meters) {
+        this.batch = batch;
+        this.cars = cars;
+        this.occupancy = occupancy;
+        this.activeBookings = activeBookings;
+        this.reminders = reminders;
+        this.meters = meters;
+    }
+
+    @Transactional
+    public BookingImportResultDto importBookings(List<BookingImportRow> rows) {
+        BookingImportRowResult[] results = new BookingImportRowResult[rows.size()];
+        CarCatalog catalog = cars.catalog();
+
+        /* ===== validation ===== */
+        List<Integer> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BookingImportRow row = rows.get(i);
+            if (row == null || row.getTelegramId() == null || row.getCarId() == null || row.getDatetime() == null) {
+                results[i] = new BookingImportRowResult(i, INVALID, "telegramId, carId and datetime are required");
+                continue;
+            }
+            if (catalog.find(row.getCarId()) == null) {
+                results[i] = new BookingImportRowResult(i, CAR_NOT_FOUND, "Car not found: " + row.getCarId());
+                continue;
+            }
+            try {
+                BookingService.validateSlot(row.getDatetime().withOffsetSameInstant(ZoneOffset.UTC));
+            } catch (BadRequestException ex) {
+                results[i] = new BookingImportRowResult(i, INVALID, ex.getMessage());
+                continue;
+            }
+            valid.add(i);
+        }
+
+        if (valid.isEmpty()) {
+            return report(results);
+        }
+
+        /* ===== car check ===== */
+        // the catalog may be stale: lock the cars still present and reject rows whose car is gone
+        Set<Long> carIds = new HashSet<>();
+        valid.forEach(i -> carIds.add(rows.get(i).getCarId()));
+        Set<Long> liveCars = batch.lockCars(carIds);
+        List<Integer> accepted = new ArrayList<>(valid.size());
+        Set<Long> telegramIds = new LinkedHashSet<>();
+        for (int i : valid) {
+            BookingImportRow row = rows.get(i);
+            if (!liveCars.contains(row.getCarId())) {
+                results[i] = new BookingImportRowResult(i, CAR_NOT_FOUND, "Car not found: " + row.getCarId());
+                continue;
+            }
+            accepted.add(i);
+            telegramIds.add(row.getTelegramId());
+        }
+        if (accepted.isEmpty()) {
+            return report(results);
+        }
+
+        /* ===== batch writes ===== */
+        Map<Long, Long> userIds = batch.ensureUsers(telegramIds);
+        List<NewBooking> inserts = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            BookingImportRow row = rows.get(i);
+            inserts.add(new NewBooking(userIds.get(row.getTelegramId()), row.getCarId(),
+                    row.getDatetime().withOffsetSameInstant(ZoneOffset.UTC)));
+        }
+        int[] counts = batch.insertConfirmedIfFree(inserts);
+        List<NewBooking> created = new ArrayList<>();
+        for (int k = 0; k < counts.length; k++) {
+            int i = accepted.get(k);
+            if (counts[k] > 0) {
+                results[i] = new BookingImportRowResult(i, CREATED, null);
+                created.add(inserts.get(k));
+            } else {
+                results[i] = new BookingImportRowResult(i, CONFLICT, "This slot is already booked for the selected car");
+            }
+        }
+        AfterCommit.run(() -> {
+            created.forEach(b -> occupancy.markBooked(b.carId(), b.datetime()));
+            if (!created.isEmpty()) {
+                // batch inserts return no ids; the window reload picks the new bookings up
+                reminders.refreshAsync();
+            }
+        });
+        created.stream().map(NewBooking::userId).distinct().forEach(activeBookings::evict);
+
+        return report(results);
+    }
+
+    private BookingImportResultDto report(BookingImportRowResult[] results) {
+        int created = 0;
+        int conflicts = 0;
+        for (BookingImportRowResult r : results) {
+            if (CREATED.equals(r.getStatus())) {
+                created++;
+            } else if (CONFLICT.equals(r.getStatus())) {
+                conflicts++;
+            }
+        }
+        int rejected = results.length - created - conflicts;
+        meters.counter("booking.import.rows", "outcome", "created").increment(created);
+        meters.counter("booking.import.rows", "outcome", "conflict").increment(conflicts);
+        meters.counter("booking.import.rows", "outcome", "rejected").increment(rejected);
+        log.info("Booking import: {} rows, {} created, {} conflicts, {} rejected",
+                results.length, created, conflicts, rejected);
+        return new BookingImportResultDto(results.length, created, conflicts, rejected, Arrays.asList(results));
+    }
+}
@@ -1,43 +1,70 @@
 package io.mitrofanovbp.testdrivebot.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
 import io.mitrofanovbp.testdrivebot.dto.BookingDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingFilter;
+import io.mitrofanovbp.testdrivebot.dto.BookingPageDto;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
 import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
 import io.mitrofanovbp.testdrivebot.exception.ConflictException;
 import io.mitrofanovbp.testdrivebot.exception.NotFoundException;
 import io.mitrofanovbp.testdrivebot.model.Booking;
 import io.mitrofanovbp.testdrivebot.model.BookingStatus;
-import io.mitrofanovbp.testdrivebot.model.Car;
 import io.mitrofanovbp.testdrivebot.model.User;
 import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
-import io.mitrofanovbp.testdrivebot.repository.CarRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Booking business logic.
+ * Metrics: {@code booking.create} timer by outcome, {@code booking.free.slots} timer by source,
+ * {@code booking.cancel} counter by source.
+ * Commits are propagated to the occupancy index, the active bookings cache and reminders.
  */
 @Service
 public class BookingService {
 
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * PostgreSQL's default name for the bookings.car_id reference (V1).
+     */
+    private static final String CAR_FK = "bookings_car_id_fkey";
+
     private final BookingRepository bookings;
-    private final CarRepository cars;
+    private final CarService cars;
+    private final SlotOccupancyIndex occupancy;
+    private final ActiveBookingsCache activeBookings;
+    private final ReminderScheduler reminders;
+    private final MeterRegistry meters;
 
-    public BookingService(BookingRepository bookings, CarRepository cars) {
+    public BookingService(BookingRepository bookings, CarService cars, SlotOccupancyIndex occupancy,
+                          ActiveBookingsCache activeBookings, ReminderScheduler reminders, MeterRegistry meters) {
         this.bookings = bookings;
         this.cars = cars;
+        this.occupancy = occupancy;
+        this.activeBookings = activeBookings;
+        this.reminders = reminders;
+        this.meters = meters;
     }
 
     /* ===================== TELEGRAM: free slots ===================== */
@@ -45,60 +72,99 @@ public class BookingService {
     /**
      * Returns a list of available time slots in UTC for cars for the day.
      * Window: 09:00-18:00 UTC (starting points 9..17).
-     * We check the elapsed time and employment via count().
+     * Served from the in-memory occupancy index; until it is warmed, taken slots
+     * are loaded with one range query.
      */
-    @Transactional(readOnly = true)
     public List<OffsetDateTime> freeSlotsUtc(Long carId, LocalDate dayUtc) {
-        ZoneOffset Z = ZoneOffset.UTC;
-        OffsetDateTime now = OffsetDateTime.now(Z);
-
-        List<OffsetDateTime> result = new ArrayList<>();
-        for (int hour = 9; hour <= 17; hour++) {
-            OffsetDateTime slot = dayUtc.atTime(hour, 0).atOffset(Z);
-            if (slot.isAfter(now)) {
-                long taken = bookings.countByCarIdAndDatetimeAndStatus(carId, slot, BookingStatus.CONFIRMED);
-                if (taken == 0) {
-                    result.add(slot);
-                }
+        Timer.Sample sample = Timer.start(meters);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        boolean indexed = occupancy.isReady();
+        int taken = indexed ? occupancy.occupiedMask(carId, dayUtc) : loadOccupiedMask(carId, dayUtc);
+
+        List<OffsetDateTime> result = new ArrayList<>(SlotGrid.SLOTS_PER_DAY);
+        for (int i = 0; i < SlotGrid.SLOTS_PER_DAY; i++) {
+            OffsetDateTime slot = SlotGrid.slotAt(dayUtc, i);
+            if ((taken & (1 << i)) == 0 && slot.isAfter(now)) {
+                result.add(slot);
             }
         }
+        sample.stop(meters.timer("booking.free.slots", "source", indexed ? "index" : "db"));
         return result;
     }
 
+    private int loadOccupiedMask(Long carId, LocalDate dayUtc) {
+        int mask = 0;
+        for (OffsetDateTime dt : bookings.findConfirmedSlotsByCarIdBetween(carId,
+                SlotGrid.dayStart(dayUtc), SlotGrid.dayEnd(dayUtc))) {
+            mask |= SlotGrid.bit(dt);
+        }
+        return mask;
+    }
+
     /* ===================== logics ===================== */
 
     /**
      * Creates a booking if business rules allow.
+     * The car comes from the catalog snapshot and the slot is claimed with a single conditional insert;
+     * the uq_booking_car_slot_confirmed partial index decides who wins a race.
      */
     @Transactional
     public BookingDto createBooking(User user, Long carId, OffsetDateTime datetime) {
-        Car car = cars.findById(carId).orElseThrow(() -> new NotFoundException("Car not found: " + carId));
+        Timer.Sample sample = Timer.start(meters);
+        String outcome = "error";
+        try {
+            BookingDto dto = doCreateBooking(user, carId, datetime);
+            outcome = "created";
+            return dto;
+        } catch (ConflictException ex) {
+            outcome = "conflict";
+            throw ex;
+        } catch (BadRequestException ex) {
+            outcome = "bad_request";
+            throw ex;
+        } catch (NotFoundException ex) {
+            outcome = "not_found";
+            throw ex;
+        } finally {
+            sample.stop(meters.timer("booking.create", "outcome", outcome));
+        }
+    }
+
+    private BookingDto doCreateBooking(User user, Long carId, OffsetDateTime datetime) {
+        CarDto car = cars.get(carId);
 
         OffsetDateTime slotUtc = datetime.withOffsetSameInstant(ZoneOffset.UTC);
 
         validateSlot(slotUtc);
 
-        long conflicts = bookings.countByCarIdAndDatetimeAndStatus(car.getId(), slotUtc, BookingStatus.CONFIRMED);
-        if (conflicts > 0) {
-            throw new ConflictException("This slot is already booked for the selected car");
-        }
-
-        Booking b = new Booking(user, car, slotUtc, BookingStatus.CONFIRMED);
+        Long id;
         try {
-            b = bookings.save(b);
+            id = bookings.insertConfirmedIfFree(user.getId(), car.getId(), slotUtc);
         } catch (DataIntegrityViolationException ex) {
+            if (!violates(ex, CAR_FK)) {
+                throw ex;
+            }
+            // the car was deleted after the snapshot was taken
+            throw new NotFoundException("Car not found: " + carId);
+        }
+        if (id == null) {
             throw new ConflictException("This slot is already booked for the selected car");
         }
-        return toDto(b);
+        AfterCommit.run(() -> {
+            occupancy.markBooked(car.getId(), slotUtc);
+            reminders.onBooked(id, user.getTelegramId(), car.getId(), slotUtc);
+        });
+        activeBookings.evict(user.getId());
+        return new BookingDto(id, car.getId(), car.getModel(), slotUtc, BookingStatus.CONFIRMED.name());
     }
 
     /**
      * Returns all active bookings (CONFIRMED) for a user, ordered by time.
+     * Served from the per-user cache; a miss costs one projection query.
      */
-    @Transactional(readOnly = true)
     public List<BookingDto> getActiveForUser(User user) {
-        return bookings.findByUserIdAndStatusOrderByDatetimeAsc(user.getId(), BookingStatus.CONFIRMED)
-                .stream().map(this::toDto).toList();
+        return activeBookings.get(user.getId(),
+                userId -> bookings.findDtosByUserIdAndStatus(userId, BookingStatus.CONFIRMED));
     }
 
     /**
@@ -113,29 +179,82 @@ public class BookingService {
         }
         b.setStatus(BookingStatus.CANCELED);
         bookings.save(b);
+        Long carId = b.getCar().getId();
+        OffsetDateTime slot = b.getDatetime();
+        AfterCommit.run(() -> {
+            occupancy.markFree(carId, slot);
+            reminders.onCanceled(bookingId);
+        });
+        activeBookings.evict(user.getId());
+        meters.counter("booking.cancel", "source", "user").increment();
     }
 
     /**
-     * Admin: list all bookings with user and car details.
+     * Admin: keyset-paginated listing ordered by (datetime desc, id desc).
+     *
+     * @param cursor opaque position from the previous page's nextCursor, null for the first page
      */
     @Transactional(readOnly = true)
-    public List<BookingAdminDto> getAllForAdmin() {
-        return bookings.findAllByOrderByDatetimeDesc().stream().map(this::toAdminDto).toList();
+    public BookingPageDto getPageForAdmin(BookingFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        OffsetDateTime afterDt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] pos = decodeCursor(cursor);
+            afterDt = OffsetDateTime.parse(pos[0]);
+            afterId = Long.parseLong(pos[1]);
+        }
+        List<BookingAdminDto> rows = bookings.findAdminPage(filter, afterDt, afterId, size + 1);
+        if (rows.size() <= size) {
+            return new BookingPageDto(rows, null);
+        }
+        List<BookingAdminDto> page = rows.subList(0, size);
+        BookingAdminDto last = page.get(size - 1);
+        return new BookingPageDto(List.copyOf(page), encodeCursor(last.getDatetime(), last.getId()));
+    }
+
+    /**
+     * Admin: streams all matching bookings to the sink row by row (JDBC cursor, nothing accumulated in memory).
+     */
+    @Transactional(readOnly = true)
+    public void exportForAdmin(BookingFilter filter, Consumer<BookingAdminDto> sink) {
+        try (Stream<BookingAdminDto> rows = bookings.streamAdmin(filter)) {
+            rows.forEach(sink);
+        }
     }
 
     /**
-     * Admin: delete booking (hard delete).
+     * Admin: delete booking (hard delete), live or archived.
      */
     @Transactional
     public void deleteByAdmin(Long bookingId) {
-        Booking b = bookings.findById(bookingId).orElseThrow(() -> new NotFoundException("Booking not found: " + bookingId));
+        Booking b = bookings.findById(bookingId).orElse(null);
+        if (b == null) {
+            if (bookings.deleteArchivedById(bookingId) == 0) {
+                throw new NotFoundException("Booking not found: " + bookingId);
+            }
+            meters.counter("booking.cancel", "source", "admin").increment();
+            return;
+        }
+        boolean confirmed = b.getStatus() == BookingStatus.CONFIRMED;
+        Long carId = b.getCar().getId();
+        OffsetDateTime slot = b.getDatetime();
+        Long userId = b.getUser().getId();
         bookings.delete(b);
+        if (confirmed) {
+            AfterCommit.run(() -> {
+                occupancy.markFree(carId, slot);
+                reminders.onCanceled(bookingId);
+            });
+            activeBookings.evict(userId);
+        }
+        meters.counter("booking.cancel", "source", "admin").increment();
     }
 
     /**
-     * Business rules validation.
+     * Business rules validation (shared with bulk import).
      */
-    private void validateSlot(OffsetDateTime slotUtc) {
+    static void validateSlot(OffsetDateTime slotUtc) {
         OffsetDateTime nowUtc = OffsetDateTime.now(ZoneOffset.UTC);
         if (!slotUtc.isAfter(nowUtc)) {
             throw new BadRequestException("Please select a future time slot");
@@ -144,34 +263,39 @@ public class BookingService {
             throw new BadRequestException("Time must be aligned to the top of the hour");
         }
         LocalTime time = slotUtc.toLocalTime();
-        LocalTime start = LocalTime.of(9, 0);
-        LocalTime end = LocalTime.of(18, 0);
+        LocalTime start = LocalTime.of(SlotGrid.OPEN_HOUR, 0);
+        LocalTime end = LocalTime.of(SlotGrid.CLOSE_HOUR, 0);
         if (time.isBefore(start) || !time.isBefore(end)) {
             throw new BadRequestException("Time must be within working hours 09:00–18:00 UTC");
         }
     }
 
-    private BookingDto toDto(Booking b) {
-        return new BookingDto(
-                b.getId(),
-                b.getCar().getId(),
-                b.getCar().getModel(),
-                b.getDatetime(),
-                b.getStatus().name()
-        );
+    private static boolean violates(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable t = ex.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve) {
+                return constraint.equalsIgnoreCase(cve.getConstraintName());
+            }
+        }
+        return false;
     }
 
-    private BookingAdminDto toAdminDto(Booking b) {
-        return new BookingAdminDto(
-                b.getId(),
-                b.getUser().getId(),
-                b.getUser().getTelegramId(),
-                b.getUser().getName(),
-                b.getUser().getUsername(),
-                b.getCar().getId(),
-                b.getCar().getModel(),
-                b.getDatetime(),
-                b.getStatus().name()
-        );
+    static String encodeCursor(OffsetDateTime datetime, Long id) {
+        String raw = datetime.withOffsetSameInstant(ZoneOffset.UTC) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            OffsetDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
     }
 }
@@ -0,0 +1,43 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned snapshot of the car catalog.
+ * A new snapshot with a higher version replaces the old one after every catalog change.
+ */
+public final class CarCatalog {
+
+    private final long version;
+    private final List<CarDto> cars;
+    private final Map<Long, CarDto> byId;
+
+    public CarCatalog(long version, List<CarDto> cars) {
+        this.version = version;
+        this.cars = List.copyOf(cars);
+        Map<Long, CarDto> index = new LinkedHashMap<>();
+        for (CarDto c : this.cars) {
+            index.put(c.getId(), c);
+        }
+        this.byId = Map.copyOf(index);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Cars ordered by id.
+     */
+    public List<CarDto> getCars() {
+        return cars;
+    }
+
+    public CarDto find(Long id) {
+        return id == null ? null : byId.get(id);
+    }
+}
@@ -6,6 +6,10 @@ import io.mitrofanovbp.testdrivebot.dto.CarUpdateRequest;
 import io.mitrofanovbp.testdrivebot.exception.NotFoundException;
 import io.mitrofanovbp.testdrivebot.model.Car;
 import io.mitrofanovbp.testdrivebot.repository.CarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,14 +17,49 @@ import java.util.List;
 
 /**
  * Car management service.
+ * Reads are served from an in-memory {@link CarCatalog} snapshot; the catalog only changes through
+ * create/update/delete here, each of which swaps in a fresh snapshot after commit.
  */
 @Service
 public class CarService {
 
+    private static final Logger log = LoggerFactory.getLogger(CarService.class);
+
     private final CarRepository cars;
+    private final ActiveBookingsCache activeBookings;
+
+    private volatile CarCatalog catalog;
 
-    public CarService(CarRepository cars) {
+    public CarService(CarRepository cars, ActiveBookingsCache activeBookings) {
         this.cars = cars;
+        this.activeBookings = activeBookings;
+    }
+
+    /* ===================== catalog snapshot ===================== */
+
+    /**
+     * Current catalog snapshot (loaded on first use if startup warm-up has not run yet).
+     */
+    public CarCatalog catalog() {
+        CarCatalog c = catalog;
+        return c != null ? c : reloadCatalog();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reloadCatalog();
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Serialized so the last reload always reflects the latest commit.
+     */
+    public synchronized CarCatalog reloadCatalog() {
+        List<CarDto> all = cars.findAllDtos();
+        CarCatalog current = catalog;
+        CarCatalog next = new CarCatalog(current == null ? 1 : current.getVersion() + 1, all);
+        catalog = next;
+        log.debug("Car catalog reloaded: version {}, {} cars", next.getVersion(), all.size());
+        return next;
     }
 
     /* ===================== REST (DTO) ===================== */
@@ -28,18 +67,19 @@ public class CarService {
     /**
      * Lists all cars.
      */
-    @Transactional(readOnly = true)
     public List<CarDto> listAll() {
-        return cars.findAll().stream().map(this::toDto).toList();
+        return catalog().getCars();
     }
 
     /**
      * Gets a car by id.
      */
-    @Transactional(readOnly = true)
     public CarDto get(Long id) {
-        Car car = cars.findById(id).orElseThrow(() -> new NotFoundException("Car not found: " + id));
-        return toDto(car);
+        CarDto car = catalog().find(id);
+        if (car == null) {
+            throw new NotFoundException("Car not found: " + id);
+        }
+        return car;
     }
 
     /**
@@ -48,7 +88,9 @@ public class CarService {
     @Transactional
     public CarDto create(CarCreateRequest req) {
         Car car = new Car(req.getModel(), req.getDescription());
-        return toDto(cars.save(car));
+        CarDto dto = toDto(cars.save(car));
+        reloadCatalogAfterCommit();
+        return dto;
     }
 
     /**
@@ -59,7 +101,10 @@ public class CarService {
         Car car = cars.findById(id).orElseThrow(() -> new NotFoundException("Car not found: " + id));
         car.setModel(req.getModel());
         car.setDescription(req.getDescription());
-        return toDto(cars.save(car));
+        CarDto dto = toDto(cars.save(car));
+        reloadCatalogAfterCommit();
+        evictBookingsAfterCommit();
+        return dto;
     }
 
     /**
@@ -69,6 +114,19 @@ public class CarService {
     public void delete(Long id) {
         Car car = cars.findById(id).orElseThrow(() -> new NotFoundException("Car not found: " + id));
         cars.delete(car);
+        reloadCatalogAfterCommit();
+        evictBookingsAfterCommit();
+    }
+
+    private void reloadCatalogAfterCommit() {
+        AfterCommit.run(this::reloadCatalog);
+    }
+
+    /**
+     * Cached booking lists carry the car model, and deleting a car cascades to its bookings.
+     */
+    private void evictBookingsAfterCommit() {
+        AfterCommit.run(activeBookings::evictAll);
     }
 
     private CarDto toDto(Car c) {
@@ -96,8 +154,7 @@ public class CarService {
     /**
      * Used by bot: convenient accessor for model.
      */
-    @Transactional(readOnly = true)
     public String getModel(Long id) {
-        return getById(id).getModel();
+        return get(id).getModel();
     }
 }
@@ -0,0 +1,212 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.repository.BookingReminderView;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reminders about upcoming test drives.
+ * <p>
+ * Confirmed bookings starting within a sliding window are loaded into a {@link ReminderWheel}
+ * (one range query per refresh, not per minute) and BookingService adds or cancels entries as
+ * bookings change. A single ticker thread advances the wheel and hands every tick's due reminders
+ * to the sink (the bot) as one batch, after re-checking in one query that they are still confirmed.
+ * Assumes a single application instance owns the bot.
+ */
+@Component
+public class ReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    /**
+     * A pending reminder; compact so that 100k+ of them stay cheap.
+     */
+    public record Reminder(long bookingId, long chatId, long carId, long slotEpochSecond) {
+
+        public OffsetDateTime slotUtc() {
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(slotEpochSecond), ZoneOffset.UTC);
+        }
+    }
+
+    private final BookingRepository bookings;
+    private final AppProperties.Reminders cfg;
+    private final MeterRegistry meters;
+    private final Clock clock;
+
+    /**
+     * bookingId -> reminder still to be sent; cancelling removes the entry, the wheel skips it later.
+     */
+    private final ConcurrentMap<Long, Reminder> pending = new ConcurrentHashMap<>();
+    private final ReminderWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    private volatile Consumer<List<Reminder>> sink;
+    private volatile long loadedUntilEpochSecond = Long.MIN_VALUE;
+
+    @Autowired
+    public ReminderScheduler(BookingRepository bookings, AppProperties props, MeterRegistry meters) {
+        this(bookings, props, meters, Clock.systemUTC());
+    }
+
+    ReminderScheduler(BookingRepository bookings, AppProperties props, MeterRegistry meters, Clock clock) {
+        this.bookings = bookings;
+        this.cfg = props.getReminders();
+        this.meters = meters;
+        this.clock = clock;
+        this.wheel = new ReminderWheel(cfg.getLead().plus(cfg.getWindow()).toMillis(), cfg.getTick().toMillis(),
+                cfg.getLead().toMillis(), clock.millis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reminder-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets the consumer that delivers due reminders.
+     */
+    public void attach(Consumer<List<Reminder>> sink) {
+        this.sink = sink;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!cfg.isEnabled()) {
+            log.info("Reminders are disabled");
+            return;
+        }
+        long tickMs = cfg.getTick().toMillis();
+        long refreshMs = cfg.getRefresh().toMillis();
+        ticker.execute(this::refreshQuietly);
+        ticker.scheduleAtFixedRate(this::tickQuietly, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::refreshQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    /* ===================== updates from BookingService ===================== */
+
+    /**
+     * Schedules a reminder for a new booking if it falls into the loaded window;
+     * later bookings are picked up by the next refresh.
+     */
+    public void onBooked(Long bookingId, Long chatId, Long carId, OffsetDateTime slotUtc) {
+        long slot = slotUtc.toEpochSecond();
+        if (cfg.isEnabled() && slot < loadedUntilEpochSecond) {
+            schedule(new Reminder(bookingId, chatId, carId, slot));
+        }
+    }
+
+    public void onCanceled(Long bookingId) {
+        pending.remove(bookingId);
+    }
+
+    /**
+     * Reloads the window in the background (after bulk changes).
+     */
+    public void refreshAsync() {
+        if (cfg.isEnabled()) {
+            ticker.execute(this::refreshQuietly);
+        }
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("reminders.pending", this, ReminderScheduler::getPending)
+                .description("Reminders scheduled but not sent yet")
+                .register(registry);
+    }
+
+    /* ===================== ticker thread ===================== */
+
+    private void schedule(Reminder r) {
+        if (pending.putIfAbsent(r.bookingId(), r) == null) {
+            synchronized (wheel) {
+                wheel.add(r);
+            }
+        }
+    }
+
+    /**
+     * Loads reminders not yet due whose slot starts before now + lead + window.
+     */
+    void refresh() {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        OffsetDateTime from = now.plus(cfg.getLead());
+        OffsetDateTime to = from.plus(cfg.getWindow());
+        loadedUntilEpochSecond = Math.max(loadedUntilEpochSecond, to.toEpochSecond());
+        List<BookingReminderView> rows = bookings.findRemindersByStatusBetween(BookingStatus.CONFIRMED, from, to);
+        for (BookingReminderView row : rows) {
+            schedule(new Reminder(row.getId(), row.getTelegramId(), row.getCarId(), row.getDatetime().toEpochSecond()));
+        }
+        log.debug("Reminder window refreshed up to {}: {} rows, {} pending", to, rows.size(), pending.size());
+    }
+
+    void tick() {
+        List<Reminder> due;
+        long nowMillis = clock.millis();
+        synchronized (wheel) {
+            due = wheel.advance(nowMillis);
+        }
+        long nowSecond = nowMillis / 1000;
+        due.removeIf(r -> !pending.remove(r.bookingId(), r) || r.slotEpochSecond() <= nowSecond);
+        if (due.isEmpty()) {
+            return;
+        }
+        Set<Long> confirmed = new HashSet<>(bookings.findIdsByIdInAndStatus(
+                due.stream().map(Reminder::bookingId).toList(), BookingStatus.CONFIRMED));
+        due.removeIf(r -> !confirmed.contains(r.bookingId()));
+        Consumer<List<Reminder>> target = sink;
+        if (due.isEmpty() || target == null) {
+            return;
+        }
+        target.accept(due);
+        meters.counter("reminders.sent").increment(due.size());
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Reminder tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Reminder window refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for reminders: a ring of buckets, one per tick, each holding the reminders
+ * due on ticks congruent to its index. Adding is O(1); advancing one tick scans one bucket.
+ * Reminders further away than one revolution simply stay in their bucket until their tick comes.
+ * <p>
+ * Not thread-safe on its own; ReminderScheduler serializes access.
+ */
+final class ReminderWheel {
+
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private final ArrayDeque<ReminderScheduler.Reminder>[] buckets;
+    private final int mask;
+    private final long tickMillis;
+    private final long leadMillis;
+
+    /**
+     * Last tick that has been processed.
+     */
+    private long currentTick;
+
+    /**
+     * @param horizonMillis how far ahead reminders are usually scheduled; sizes the ring
+     * @param tickMillis    wheel resolution
+     * @param leadMillis    how long before the slot a reminder is due
+     */
+    @SuppressWarnings("unchecked")
+    ReminderWheel(long horizonMillis, long tickMillis, long leadMillis, long nowMillis) {
+        long wanted = Math.max(16, Math.min(MAX_BUCKETS, horizonMillis / tickMillis + 1));
+        int capacity = Integer.highestOneBit((int) wanted - 1) << 1;
+        this.buckets = new ArrayDeque[capacity];
+        this.mask = capacity - 1;
+        this.tickMillis = tickMillis;
+        this.leadMillis = leadMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    void add(ReminderScheduler.Reminder r) {
+        long tick = Math.max(dueTick(r), currentTick + 1);
+        int idx = (int) (tick & mask);
+        ArrayDeque<ReminderScheduler.Reminder> bucket = buckets[idx];
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets[idx] = bucket;
+        }
+        bucket.add(r);
+    }
+
+    /**
+     * Processes all ticks up to {@code nowMillis} and returns the reminders that became due.
+     */
+    List<ReminderScheduler.Reminder> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<ReminderScheduler.Reminder> due = new ArrayList<>();
+        if (target <= currentTick) {
+            return due;
+        }
+        // after a long pause every bucket is visited once, then the clock jumps forward
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            ArrayDeque<ReminderScheduler.Reminder> bucket = buckets[(int) (tick & mask)];
+            if (bucket == null) {
+                continue;
+            }
+            for (Iterator<ReminderScheduler.Reminder> it = bucket.iterator(); it.hasNext(); ) {
+                ReminderScheduler.Reminder r = it.next();
+                if (dueTick(r) <= target) {
+                    it.remove();
+                    due.add(r);
+                }
+            }
+        }
+        currentTick = target;
+        return due;
+    }
+
+    private long dueTick(ReminderScheduler.Reminder r) {
+        long dueMillis = r.slotEpochSecond() * 1000 - leadMillis;
+        return Math.floorDiv(dueMillis + tickMillis - 1, tickMillis);
+    }
+}
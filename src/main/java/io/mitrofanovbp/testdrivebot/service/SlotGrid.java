@@ -0,0 +1,61 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Hourly booking grid: slots start at 09:00..17:00 UTC, working hours end at 18:00 UTC.
+ * A day's occupancy fits into the low {@link #SLOTS_PER_DAY} bits of an int (bit 0 = 09:00).
+ */
+public final class SlotGrid {
+    private SlotGrid() {
+    }
+
+    public static final int OPEN_HOUR = 9;
+    public static final int CLOSE_HOUR = 18;
+    public static final int SLOTS_PER_DAY = CLOSE_HOUR - OPEN_HOUR;
+
+    /**
+     * Mask with every slot of a day set.
+     */
+    public static final int FULL_DAY = (1 << SLOTS_PER_DAY) - 1;
+
+    /**
+     * Bit for the given UTC slot, or 0 if it is outside the grid.
+     */
+    public static int bit(OffsetDateTime slot) {
+        OffsetDateTime z = slot.withOffsetSameInstant(ZoneOffset.UTC);
+        int hour = z.getHour();
+        if (hour < OPEN_HOUR || hour >= CLOSE_HOUR || z.getMinute() != 0 || z.getSecond() != 0 || z.getNano() != 0) {
+            return 0;
+        }
+        return 1 << (hour - OPEN_HOUR);
+    }
+
+    /**
+     * Slot start for the given grid index (0 = 09:00 UTC).
+     */
+    public static OffsetDateTime slotAt(LocalDate dayUtc, int index) {
+        return dayUtc.atTime(OPEN_HOUR + index, 0).atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Slots of the day that start strictly after {@code now} (past days: none).
+     */
+    public static int futureMask(LocalDate dayUtc, OffsetDateTime now) {
+        int mask = 0;
+        for (int i = SLOTS_PER_DAY - 1; i >= 0 && slotAt(dayUtc, i).isAfter(now); i--) {
+            mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    public static OffsetDateTime dayStart(LocalDate dayUtc) {
+        return dayUtc.atTime(OPEN_HOUR, 0).atOffset(ZoneOffset.UTC);
+    }
+
+    public static OffsetDateTime dayEnd(LocalDate dayUtc) {
+        return dayUtc.atTime(CLOSE_HOUR, 0).atOffset(ZoneOffset.UTC);
+    }
+}
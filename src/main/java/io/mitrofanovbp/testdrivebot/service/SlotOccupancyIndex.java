@@ -0,0 +1,135 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingSlotView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory occupancy of CONFIRMED slots: one {@link SlotGrid} bitmask per (car, UTC day).
+ * <p>
+ * Warmed from the bookings table on startup and kept current by BookingService after each commit.
+ * It only answers availability questions; the uq_booking_car_slot_confirmed index remains
+ * the source of truth for conflicts. Assumes a single application instance owns the bot.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotOccupancyIndex.class);
+
+    private static final int MAX_WARMUP_ATTEMPTS = 3;
+
+    private final BookingRepository bookings;
+
+    /**
+     * carId -> (epochDay -> occupied mask).
+     */
+    private volatile ConcurrentMap<Long, ConcurrentMap<Long, Integer>> days = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every write; lets warm-up detect writes that raced with its snapshot read.
+     * Writes and the warm-up swap are serialized on {@code this}; reads are lock-free.
+     */
+    private long writes;
+
+    private volatile boolean ready;
+
+    public SlotOccupancyIndex(BookingRepository bookings) {
+        this.bookings = bookings;
+    }
+
+    /**
+     * Loads confirmed bookings from today (UTC) onwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (int attempt = 1; attempt <= MAX_WARMUP_ATTEMPTS; attempt++) {
+            long before;
+            synchronized (this) {
+                before = writes;
+            }
+            OffsetDateTime from = LocalDate.now(ZoneOffset.UTC).atStartOfDay().atOffset(ZoneOffset.UTC);
+            List<BookingSlotView> rows = bookings.findSlotsByStatusFrom(BookingStatus.CONFIRMED, from);
+
+            ConcurrentMap<Long, ConcurrentMap<Long, Integer>> fresh = new ConcurrentHashMap<>();
+            for (BookingSlotView row : rows) {
+                apply(fresh, row.getCarId(), row.getDatetime(), true);
+            }
+            synchronized (this) {
+                if (writes == before) {
+                    days = fresh;
+                    ready = true;
+                    log.info("Slot occupancy index warmed with {} confirmed slots", rows.size());
+                    return;
+                }
+            }
+            log.debug("Bookings changed during occupancy warm-up, retrying (attempt {})", attempt);
+        }
+        log.warn("Slot occupancy index could not be warmed consistently; availability falls back to DB");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Occupied slots mask for a car on the given UTC day.
+     */
+    public int occupiedMask(Long carId, LocalDate dayUtc) {
+        ConcurrentMap<Long, Integer> byDay = days.get(carId);
+        if (byDay == null) {
+            return 0;
+        }
+        Integer mask = byDay.get(dayUtc.toEpochDay());
+        return mask == null ? 0 : mask;
+    }
+
+    public synchronized void markBooked(Long carId, OffsetDateTime slotUtc) {
+        writes++;
+        apply(days, carId, slotUtc, true);
+    }
+
+    public synchronized void markFree(Long carId, OffsetDateTime slotUtc) {
+        writes++;
+        apply(days, carId, slotUtc, false);
+    }
+
+    /**
+     * Drops days that are already in the past.
+     */
+    @Scheduled(cron = "0 5 0 * * *", zone = "UTC")
+    public void evictPastDays() {
+        long today = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        for (ConcurrentMap<Long, Integer> byDay : days.values()) {
+            byDay.keySet().removeIf(day -> day < today);
+        }
+        days.values().removeIf(ConcurrentMap::isEmpty);
+    }
+
+    private static void apply(ConcurrentMap<Long, ConcurrentMap<Long, Integer>> target,
+                              Long carId, OffsetDateTime slot, boolean booked) {
+        int bit = SlotGrid.bit(slot);
+        if (bit == 0) {
+            return;
+        }
+        long day = slot.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay();
+        ConcurrentMap<Long, Integer> byDay = target.computeIfAbsent(carId, k -> new ConcurrentHashMap<>());
+        byDay.compute(day, (k, mask) -> {
+            int m = mask == null ? 0 : mask;
+            m = booked ? (m | bit) : (m & ~bit);
+            return m == 0 ? null : m;
+        });
+    }
+}
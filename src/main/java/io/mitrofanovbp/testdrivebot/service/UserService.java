@@ -1,29 +1,56 @@
 package io.mitrofanovbp.testdrivebot.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
 import io.mitrofanovbp.testdrivebot.model.User;
 import io.mitrofanovbp.testdrivebot.repository.UserRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
 /**
  * User service encapsulating user lookup/creation.
+ * Resolved users are cached by Telegram id, so returning users with an unchanged profile
+ * are served without touching the database.
  */
 @Service
 public class UserService {
 
     private final UserRepository users;
+    private final TransactionTemplate tx;
+    private final Cache<Long, CachedUser> cache;
 
-    public UserService(UserRepository users) {
+    public UserService(UserRepository users, PlatformTransactionManager txManager, AppProperties props) {
         this.users = users;
+        this.tx = new TransactionTemplate(txManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getUserCache().getMaxSize())
+                .expireAfterWrite(props.getUserCache().getTtl())
+                .recordStats()
+                .build();
     }
 
     /**
      * Finds or creates a user by Telegram identifiers.
+     * Writes to the database only when the user is new or the profile changed.
      */
-    @Transactional
     public User findOrCreate(Long telegramId, String username, String name) {
+        CachedUser cached = cache.getIfPresent(telegramId);
+        if (cached != null && cached.matches(username, name)) {
+            return cached.toUser();
+        }
+        User u = tx.execute(status -> loadOrCreate(telegramId, username, name));
+        cache.put(telegramId, new CachedUser(u));
+        return u;
+    }
+
+    private User loadOrCreate(Long telegramId, String username, String name) {
         Optional<User> found = users.findByTelegramId(telegramId);
         if (found.isPresent()) {
             User u = found.get();
@@ -42,15 +69,60 @@ public class UserService {
         return users.save(created);
     }
 
+    /**
+     * Hit/miss statistics of the user cache.
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    public long cacheSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Publishes the user cache as the {@code users} cache in Micrometer.
+     */
+    public void bindCacheMetrics(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+
     /* ===== TELEGRAM helpers ===== */
 
-    @Transactional
     public User getOrCreateByTelegramId(Long telegramId) {
         return findOrCreate(telegramId, null, null);
     }
 
-    @Transactional
     public User getOrCreateByTelegramId(Long telegramId, String username, String name) {
         return findOrCreate(telegramId, username, name);
     }
+
+    /**
+     * Immutable snapshot of a persisted user.
+     */
+    private static final class CachedUser {
+        private final Long id;
+        private final Long telegramId;
+        private final String username;
+        private final String name;
+
+        CachedUser(User u) {
+            this.id = u.getId();
+            this.telegramId = u.getTelegramId();
+            this.username = u.getUsername();
+            this.name = u.getName();
+        }
+
+        /**
+         * Same rule as the DB path: null inputs never overwrite stored values.
+         */
+        boolean matches(String username, String name) {
+            return (username == null || username.equals(this.username))
+                    && (name == null || name.equals(this.name));
+        }
+
+        User toUser() {
+            return new User(id, telegramId, username, name);
+        }
+    }
 }
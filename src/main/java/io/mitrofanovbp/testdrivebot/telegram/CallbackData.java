@@ -0,0 +1,58 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Decoded inline button payload, see {@link Callbacks}.
+ *
+ * @param action what the button does
+ * @param id     car id or booking id (0 when unused)
+ * @param arg    epoch day for DAY/BACK_TIME, epoch hour for TIME/CONFIRM (0 when unused)
+ */
+public record CallbackData(Action action, long id, long arg) {
+
+    /**
+     * Encoded by ordinal: append new actions at the end (at most 16).
+     */
+    public enum Action {
+        START, CARS, MY,
+        CAR, DAY, TIME, CONFIRM,
+        BACK_START, BACK_CARS, BACK_DAY, BACK_TIME,
+        CANCEL_FLOW, CANCEL_BOOK,
+        FIND;
+
+        private static final Action[] VALUES = values();
+
+        static Action ofOrdinal(int ordinal) {
+            return ordinal < VALUES.length ? VALUES[ordinal] : null;
+        }
+
+        boolean hasId() {
+            return this == CAR || this == DAY || this == TIME || this == CONFIRM
+                    || this == BACK_DAY || this == BACK_TIME || this == CANCEL_BOOK;
+        }
+
+        boolean hasArg() {
+            return this == DAY || this == TIME || this == CONFIRM || this == BACK_TIME;
+        }
+    }
+
+    public long carId() {
+        return id;
+    }
+
+    public long bookingId() {
+        return id;
+    }
+
+    public LocalDate day() {
+        return LocalDate.ofEpochDay(arg);
+    }
+
+    public OffsetDateTime slotUtc() {
+        return Instant.ofEpochSecond(arg * 3600L).atOffset(ZoneOffset.UTC);
+    }
+}
@@ -1,35 +1,197 @@
 package io.mitrofanovbp.testdrivebot.telegram;
 
+import io.mitrofanovbp.testdrivebot.telegram.CallbackData.Action;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Inline button payload codec.
+ * <p>
+ * Layout: one header byte ({@code 0xC0 | action ordinal}), then an unsigned varint id and an
+ * unsigned varint argument when the action carries them; packed as unpadded base64url.
+ * The largest payload is 21 bytes (28 chars), well under Telegram's 64-byte callback_data limit.
+ */
 public final class Callbacks {
     private Callbacks() {
     }
 
-    // main menu
-    public static final String START = "START";
-    public static final String CARS = "CARS";
-    public static final String MY = "MY";
+    private static final int MARKER = 0xC0;
+    private static final int MAX_BYTES = 1 + 10 + 10;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
 
-    // booking flow
-    public static final String CAR = "CAR";      // CAR|{carId}
-    public static final String DAY = "DAY";      // DAY|{carId}|{yyyy-MM-dd}
     /**
-     * TIME callback supports:
-     * 1) TIME|{carId}|{ISO-8601 offset datetime} e.g. 2025-08-16T13:00Z
-     * 2) (optional) TIME|{carId}|{yyyy-MM-dd}|{HH}
+     * base64url alphabet value of each ASCII char, -1 if not part of the alphabet.
      */
-    public static final String TIME = "TIME";
-    public static final String CONFIRM = "CONFIRM";  // CONFIRM|{carId}|{ISO-8601 offset datetime}
+    private static final byte[] ALPHABET = new byte[128];
+
+    static {
+        Arrays.fill(ALPHABET, (byte) -1);
+        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < chars.length(); i++) {
+            ALPHABET[chars.charAt(i)] = (byte) i;
+        }
+    }
+
+    // main menu
+    public static final String START = encode(Action.START, 0, 0);
+    public static final String CARS = encode(Action.CARS, 0, 0);
+    public static final String MY = encode(Action.MY, 0, 0);
+    public static final String FIND = encode(Action.FIND, 0, 0);
 
     // navigation
-    public static final String BACK = "BACK";        // BACK|TARGET|...
+    public static final String BACK_START = encode(Action.BACK_START, 0, 0);
+    public static final String BACK_CARS = encode(Action.BACK_CARS, 0, 0);
 
     // cancel
-    public static final String CANCEL_FLOW = "CANCEL_FLOW";
-    public static final String CANCEL_BOOK = "CANCEL_BOOK";
-
-    // compatibility aliases
-    @Deprecated
-    public static final String CANCEL = CANCEL_FLOW;
-    @Deprecated
-    public static final String CANCEL_BOOKING = CANCEL_BOOK;
+    public static final String CANCEL_FLOW = encode(Action.CANCEL_FLOW, 0, 0);
+
+    /* ---------- Booking flow ---------- */
+
+    public static String car(long carId) {
+        return encode(Action.CAR, carId, 0);
+    }
+
+    public static String day(long carId, LocalDate day) {
+        return encode(Action.DAY, carId, day.toEpochDay());
+    }
+
+    public static String time(long carId, OffsetDateTime slot) {
+        return encode(Action.TIME, carId, epochHour(slot));
+    }
+
+    public static String confirm(long carId, OffsetDateTime slot) {
+        return encode(Action.CONFIRM, carId, epochHour(slot));
+    }
+
+    public static String backToDays(long carId) {
+        return encode(Action.BACK_DAY, carId, 0);
+    }
+
+    public static String backToTimes(long carId, LocalDate day) {
+        return encode(Action.BACK_TIME, carId, day.toEpochDay());
+    }
+
+    public static String cancelBooking(long bookingId) {
+        return encode(Action.CANCEL_BOOK, bookingId, 0);
+    }
+
+    /* ---------- Codec ---------- */
+
+    /**
+     * Decodes a payload produced by this class.
+     *
+     * @return decoded data, or {@code null} for anything else (including pre-codec buttons)
+     */
+    public static CallbackData decode(String data) {
+        if (data == null || data.isEmpty() || data.length() > (MAX_BYTES * 4 + 2) / 3) {
+            return null;
+        }
+        Reader r = new Reader(data);
+        int header = r.next();
+        if (header < 0 || (header & 0xF0) != MARKER) {
+            return null;
+        }
+        Action action = Action.ofOrdinal(header & 0x0F);
+        if (action == null) {
+            return null;
+        }
+        long id = 0;
+        long arg = 0;
+        if (action.hasId() && (id = r.varint()) < 0) {
+            return null;
+        }
+        if (action.hasArg() && (arg = r.varint()) < 0) {
+            return null;
+        }
+        return r.atEnd() ? new CallbackData(action, id, arg) : null;
+    }
+
+    static String encode(Action action, long id, long arg) {
+        byte[] buf = new byte[MAX_BYTES];
+        int n = 0;
+        buf[n++] = (byte) (MARKER | action.ordinal());
+        if (action.hasId()) {
+            n = writeVarint(buf, n, id);
+        }
+        if (action.hasArg()) {
+            n = writeVarint(buf, n, arg);
+        }
+        return ENCODER.encodeToString(Arrays.copyOf(buf, n));
+    }
+
+    private static int writeVarint(byte[] buf, int n, long v) {
+        if (v < 0) {
+            throw new IllegalArgumentException("Negative value in callback data: " + v);
+        }
+        while ((v & ~0x7FL) != 0) {
+            buf[n++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[n++] = (byte) v;
+        return n;
+    }
+
+    private static long epochHour(OffsetDateTime slot) {
+        return Math.floorDiv(slot.withOffsetSameInstant(ZoneOffset.UTC).toEpochSecond(), 3600L);
+    }
+
+    /**
+     * Streams bytes straight out of the base64url text without an intermediate array.
+     */
+    private static final class Reader {
+        private final String s;
+        private int pos;
+        private int bits;
+        private int bitCount;
+
+        Reader(String s) {
+            this.s = s;
+        }
+
+        /**
+         * @return next byte (0..255), or -1 when the input is exhausted or malformed
+         */
+        int next() {
+            while (bitCount < 8) {
+                if (pos >= s.length()) {
+                    return -1;
+                }
+                char c = s.charAt(pos++);
+                int v = c < 128 ? ALPHABET[c] : -1;
+                if (v < 0) {
+                    return -1;
+                }
+                bits = (bits << 6) | v;
+                bitCount += 6;
+            }
+            bitCount -= 8;
+            return (bits >>> bitCount) & 0xFF;
+        }
+
+        /**
+         * @return unsigned varint value, or -1 when truncated or longer than 63 bits
+         */
+        long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 63; shift += 7) {
+                int b = next();
+                if (b < 0) {
+                    return -1;
+                }
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            return -1;
+        }
+
+        boolean atEnd() {
+            return pos == s.length() && bitCount < 6 && (bits & ((1 << bitCount) - 1)) == 0;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.exception.NotFoundException;
+import io.mitrofanovbp.testdrivebot.service.CarCatalog;
+import io.mitrofanovbp.testdrivebot.service.CarService;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Booking flow state per chat: the selected car (resolved once per flow), day and slot.
+ * <p>
+ * Bounded and evicted after the chat goes idle. Callbacks stay self-contained, so a missing or evicted
+ * session never breaks a button; the session only saves re-resolving the car on each step and lets
+ * buttons that can no longer be decoded resume the flow where the user was.
+ */
+public class ChatSessions {
+
+    /**
+     * Flow state; the car is tied to the catalog version it was resolved from.
+     */
+    public record Session(CarDto car, long catalogVersion, LocalDate day, OffsetDateTime slot) {
+    }
+
+    private final Cache<Long, Session> cache;
+    private final CarService cars;
+
+    public ChatSessions(AppProperties.CacheSpec spec, CarService cars, MeterRegistry meters) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterAccess(spec.getTtl())
+                .recordStats()
+                .build();
+        this.cars = cars;
+        CaffeineCacheMetrics.monitor(meters, cache, "chat-sessions");
+    }
+
+    public Session get(Long chatId) {
+        return cache.getIfPresent(chatId);
+    }
+
+    /**
+     * The selected car; resolved from the catalog only when the chat switches cars or the catalog changed.
+     *
+     * @throws NotFoundException if the car is not in the catalog
+     */
+    public CarDto car(Long chatId, long carId) {
+        Session s = cache.getIfPresent(chatId);
+        CarCatalog catalog = cars.catalog();
+        if (s != null && s.car().getId() == carId && s.catalogVersion() == catalog.getVersion()) {
+            return s.car();
+        }
+        CarDto car = catalog.find(carId);
+        if (car == null) {
+            throw new NotFoundException("Car not found: " + carId);
+        }
+        boolean sameCar = s != null && s.car().getId() == carId;
+        cache.put(chatId, new Session(car, catalog.getVersion(),
+                sameCar ? s.day() : null, sameCar ? s.slot() : null));
+        return car;
+    }
+
+    public void day(Long chatId, long carId, LocalDate day) {
+        CarDto car = car(chatId, carId);
+        cache.asMap().computeIfPresent(chatId, (k, s) -> s.car() == car ? new Session(car, s.catalogVersion(), day, null) : s);
+    }
+
+    public void slot(Long chatId, long carId, OffsetDateTime slot) {
+        CarDto car = car(chatId, carId);
+        cache.asMap().computeIfPresent(chatId, (k, s) -> s.car() == car
+                ? new Session(car, s.catalogVersion(), slot.toLocalDate(), slot) : s);
+    }
+
+    /**
+     * Forgets the flow (booked or canceled).
+     */
+    public void end(Long chatId) {
+        cache.invalidate(chatId);
+    }
+}
@@ -0,0 +1,45 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples and reports percentiles over them.
+ */
+final class LatencyRecorder {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    LatencyRecorder(int window) {
+        this.samples = new long[window];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Percentiles in milliseconds for the given quantiles (0..1), zeros when there are no samples.
+     */
+    double[] percentilesMillis(double... quantiles) {
+        long[] copy;
+        synchronized (this) {
+            copy = Arrays.copyOf(samples, count);
+        }
+        double[] result = new double[quantiles.length];
+        if (copy.length == 0) {
+            return result;
+        }
+        Arrays.sort(copy);
+        for (int i = 0; i < quantiles.length; i++) {
+            int idx = (int) Math.ceil(quantiles[i] * copy.length) - 1;
+            result[i] = copy[Math.max(0, Math.min(copy.length - 1, idx))] / 1_000_000d;
+        }
+        return result;
+    }
+}
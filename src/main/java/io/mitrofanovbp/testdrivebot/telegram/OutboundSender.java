@@ -0,0 +1,369 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Outbound queue for Bot API calls, sent through the async API without blocking handlers.
+ * <p>
+ * Calls for a chat go through that chat's lane: one call in flight at a time (so edits and follow-ups
+ * keep their order) and a per-chat token bucket. All calls share a global token bucket.
+ * {@code 429 retry_after} responses are retried after the advised delay.
+ * All queue state is owned by a single scheduler thread; HTTP calls run on the bot's async executor.
+ * <p>
+ * Metrics: {@code telegram.api.calls} timer (method, outcome), {@code telegram.api.retries} and
+ * {@code telegram.api.fallbacks} counters, {@code telegram.sender.queue} gauge.
+ */
+public class OutboundSender {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundSender.class);
+
+    private static final long IDLE_LANE_SWEEP_SECONDS = 60;
+
+    private final AbsSender bot;
+    private final int maxRetries;
+    private final double perChatRate;
+    private final int perChatBurst;
+
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier nanoClock;
+    private final TokenBucket global;
+    private final Map<Long, Lane> lanes = new HashMap<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LatencyRecorder latency = new LatencyRecorder(2048);
+
+    private final MeterRegistry meters;
+    private final Counter retriedCounter;
+    private final Counter fallbackCounter;
+
+    public OutboundSender(AbsSender bot, double globalRate, int globalBurst,
+                          double perChatRate, int perChatBurst, int maxRetries, MeterRegistry meters) {
+        this(bot, globalRate, globalBurst, perChatRate, perChatBurst, maxRetries, meters,
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "bot-sender");
+                    t.setDaemon(true);
+                    return t;
+                }), System::nanoTime);
+    }
+
+    /**
+     * For tests: the scheduler must run tasks one at a time, and {@code nanoClock} must be its clock.
+     */
+    OutboundSender(AbsSender bot, double globalRate, int globalBurst,
+                   double perChatRate, int perChatBurst, int maxRetries, MeterRegistry meters,
+                   ScheduledExecutorService scheduler, LongSupplier nanoClock) {
+        this.bot = bot;
+        this.meters = meters;
+        this.retriedCounter = meters.counter("telegram.api.retries");
+        this.fallbackCounter = meters.counter("telegram.api.fallbacks");
+        Gauge.builder("telegram.sender.queue", queued, AtomicInteger::get)
+                .description("Bot API calls accepted but not completed")
+                .register(meters);
+        this.perChatRate = perChatRate;
+        this.perChatBurst = perChatBurst;
+        this.maxRetries = maxRetries;
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.global = new TokenBucket(globalRate, globalBurst, nanoClock.getAsLong());
+        scheduler.scheduleWithFixedDelay(this::sweepIdleLanes,
+                IDLE_LANE_SWEEP_SECONDS, IDLE_LANE_SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /* ===================== API ===================== */
+
+    /**
+     * Queues a call in the chat's lane.
+     */
+    public <T extends Serializable> CompletableFuture<T> send(Long chatId, BotApiMethod<T> method) {
+        return enqueue(chatId, method, null);
+    }
+
+    /**
+     * Queues an edit; if it fails for any reason (message too old, not modified, deleted, I/O error...)
+     * the fallback is sent instead.
+     */
+    public CompletableFuture<Serializable> editOrSend(Long chatId, BotApiMethod<? extends Serializable> edit,
+                                                      BotApiMethod<? extends Serializable> fallback) {
+        return enqueue(chatId, edit, fallback);
+    }
+
+    /**
+     * Queues a call that is not bound to chat ordering or per-chat limits (e.g. answerCallbackQuery).
+     */
+    public <T extends Serializable> CompletableFuture<T> sendUnordered(BotApiMethod<T> method) {
+        return enqueue(null, method, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> CompletableFuture<T> enqueue(Long chatId, BotApiMethod<?> method,
+                                                                 BotApiMethod<?> fallback) {
+        Outbound item = new Outbound(chatId, method, fallback);
+        queued.incrementAndGet();
+        scheduler.execute(() -> {
+            if (chatId == null) {
+                pumpUnordered(item);
+            } else {
+                Lane lane = lanes.computeIfAbsent(chatId, k -> new Lane(nanoClock.getAsLong()));
+                lane.queue.addLast(item);
+                pump(lane);
+            }
+        });
+        return (CompletableFuture<T>) item.result;
+    }
+
+    /* ===================== stats ===================== */
+
+    /**
+     * Calls accepted but not completed yet.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getRetried() {
+        return retried.get();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Send latency percentiles (ms) over recent calls for the given quantiles.
+     */
+    public double[] latencyPercentilesMillis(double... quantiles) {
+        return latency.percentilesMillis(quantiles);
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ===================== scheduler thread ===================== */
+
+    private void pump(Lane lane) {
+        if (lane.inFlight || lane.wakeScheduled || lane.queue.isEmpty()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long wait = Math.max(lane.notBefore - now, 0);
+        wait = Math.max(wait, lane.bucket.nanosUntilAvailable(now));
+        wait = Math.max(wait, global.nanosUntilAvailable(now));
+        if (wait > 0) {
+            lane.wakeScheduled = true;
+            scheduler.schedule(() -> {
+                lane.wakeScheduled = false;
+                pump(lane);
+            }, wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+        lane.bucket.consume();
+        global.consume();
+        lane.inFlight = true;
+        Outbound item = lane.queue.peekFirst();
+        dispatch(item, () -> {
+            lane.inFlight = false;
+            pump(lane);
+        }, done -> {
+            if (done) {
+                lane.queue.pollFirst();
+            }
+        });
+    }
+
+    private void pumpUnordered(Outbound item) {
+        long wait = global.nanosUntilAvailable(nanoClock.getAsLong());
+        if (wait > 0) {
+            scheduler.schedule(() -> pumpUnordered(item), wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+        global.consume();
+        dispatch(item, () -> {
+        }, done -> {
+            if (!done) {
+                scheduler.schedule(() -> pumpUnordered(item), item.retryDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Sends the item's current method; on completion (back on the scheduler thread) reports
+     * whether the item is finished and then runs {@code next}.
+     */
+    private void dispatch(Outbound item, Runnable next, Consumer<Boolean> onSettled) {
+        long start = nanoClock.getAsLong();
+        CompletableFuture<? extends Serializable> call;
+        try {
+            call = executeAsync(item.current);
+        } catch (TelegramApiException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        String method = item.current.getMethod();
+        call.whenComplete((res, err) -> scheduler.execute(() -> {
+            long elapsed = nanoClock.getAsLong() - start;
+            latency.record(elapsed);
+            Throwable cause = unwrap(err);
+            Timer.builder("telegram.api.calls")
+                    .tag("method", method)
+                    .tag("outcome", outcome(cause))
+                    .register(meters)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            boolean done = settle(item, res, cause);
+            onSettled.accept(done);
+            next.run();
+        }));
+    }
+
+    /**
+     * @return true when the item is finished (succeeded or failed for good), false when it must be re-sent
+     */
+    private boolean settle(Outbound item, Serializable res, Throwable err) {
+        if (err == null) {
+            sent.incrementAndGet();
+            complete(item, res, null);
+            return true;
+        }
+        if (err instanceof TelegramApiRequestException req
+                && Integer.valueOf(429).equals(req.getErrorCode()) && item.attempts < maxRetries) {
+            Integer retryAfter = req.getParameters() == null ? null : req.getParameters().getRetryAfter();
+            item.attempts++;
+            retried.incrementAndGet();
+            retriedCounter.increment();
+            long delay = TimeUnit.SECONDS.toNanos(retryAfter == null ? 1 : retryAfter);
+            item.retryDelayNanos = delay;
+            if (item.chatId != null) {
+                Lane lane = lanes.get(item.chatId);
+                if (lane != null) {
+                    lane.notBefore = nanoClock.getAsLong() + delay;
+                }
+            }
+            log.debug("Telegram rate limit hit for {}, retrying in {}s", item.current.getMethod(), retryAfter);
+            return false;
+        }
+        // any failed edit (rejected, I/O error...) still has to reach the user
+        if (item.fallback != null && item.current != item.fallback) {
+            log.debug("Edit failed, falling back to send: {}", err.getMessage());
+            fallbacks.incrementAndGet();
+            fallbackCounter.increment();
+            item.current = item.fallback;
+            return false;
+        }
+        failed.incrementAndGet();
+        log.warn("Telegram call {} failed: {}", item.current.getMethod(), err.getMessage());
+        complete(item, null, err);
+        return true;
+    }
+
+    private void complete(Outbound item, Serializable res, Throwable err) {
+        queued.decrementAndGet();
+        if (err == null) {
+            item.result.complete(res);
+        } else {
+            item.result.completeExceptionally(err);
+        }
+    }
+
+    private void sweepIdleLanes() {
+        long now = nanoClock.getAsLong();
+        Iterator<Lane> it = lanes.values().iterator();
+        while (it.hasNext()) {
+            Lane lane = it.next();
+            if (!lane.inFlight && !lane.wakeScheduled && lane.queue.isEmpty() && lane.bucket.isFull(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CompletableFuture<? extends Serializable> executeAsync(BotApiMethod<?> method) throws TelegramApiException {
+        return bot.executeAsync((BotApiMethod) method);
+    }
+
+    private static String outcome(Throwable err) {
+        if (err == null) {
+            return "ok";
+        }
+        if (err instanceof TelegramApiRequestException req && Integer.valueOf(429).equals(req.getErrorCode())) {
+            return "rate_limited";
+        }
+        return "error";
+    }
+
+    private static Throwable unwrap(Throwable err) {
+        return (err instanceof CompletionException && err.getCause() != null) ? err.getCause() : err;
+    }
+
+    /* ===================== state ===================== */
+
+    private final class Lane {
+        final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+        final TokenBucket bucket;
+        boolean inFlight;
+        boolean wakeScheduled;
+        long notBefore;
+
+        Lane(long now) {
+            this.bucket = new TokenBucket(perChatRate, perChatBurst, now);
+            this.notBefore = now;
+        }
+    }
+
+    private static final class Outbound {
+        final Long chatId;
+        final BotApiMethod<?> fallback;
+        final CompletableFuture<Serializable> result = new CompletableFuture<>();
+        BotApiMethod<?> current;
+        int attempts;
+        long retryDelayNanos;
+
+        Outbound(Long chatId, BotApiMethod<?> method, BotApiMethod<?> fallback) {
+            this.chatId = chatId;
+            this.current = method;
+            this.fallback = fallback;
+        }
+    }
+}
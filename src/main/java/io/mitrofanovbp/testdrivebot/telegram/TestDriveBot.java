@@ -1,5 +1,7 @@
 package io.mitrofanovbp.testdrivebot.telegram;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.mitrofanovbp.testdrivebot.config.AppProperties;
 import io.mitrofanovbp.testdrivebot.dto.BookingDto;
 import io.mitrofanovbp.testdrivebot.dto.CarDto;
@@ -7,8 +9,10 @@ import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
 import io.mitrofanovbp.testdrivebot.exception.ConflictException;
 import io.mitrofanovbp.testdrivebot.exception.NotFoundException;
 import io.mitrofanovbp.testdrivebot.model.User;
+import io.mitrofanovbp.testdrivebot.service.AvailabilityService;
 import io.mitrofanovbp.testdrivebot.service.BookingService;
 import io.mitrofanovbp.testdrivebot.service.CarService;
+import io.mitrofanovbp.testdrivebot.service.ReminderScheduler;
 import io.mitrofanovbp.testdrivebot.service.UserService;
 import io.mitrofanovbp.testdrivebot.telegram.commands.CarsCommand;
 import io.mitrofanovbp.testdrivebot.telegram.commands.MyBookingsCommand;
@@ -17,10 +21,13 @@ import io.mitrofanovbp.testdrivebot.telegram.utils.KeyboardUtils;
 import io.mitrofanovbp.testdrivebot.telegram.utils.TextUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.commands.SetMyCommands;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Message;
@@ -29,32 +36,60 @@ import org.telegram.telegrambots.meta.api.objects.commands.BotCommand;
 import org.telegram.telegrambots.meta.api.objects.commands.scope.BotCommandScopeDefault;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 
-import static io.mitrofanovbp.testdrivebot.telegram.Callbacks.*;
-
 public class TestDriveBot extends TelegramLongPollingBot {
     private static final Logger log = LoggerFactory.getLogger(TestDriveBot.class);
 
+    private static final int DAY_PICKER_DAYS = 7;
+
     private final AppProperties props;
     private final UserService userService;
     private final CarService carService;
     private final BookingService bookingService;
+    private final AvailabilityService availability;
+    private final UpdateDispatcher dispatcher;
+    private final OutboundSender sender;
+    private final UpdateDeduplicator dedupe;
+    private final UpdateOffsetTracker offsets;
+    private final ChatSessions sessions;
+    private final MeterRegistry meters;
 
-    public TestDriveBot(AppProperties props,
+    public TestDriveBot(DefaultBotOptions options,
+                        AppProperties props,
                         UserService userService,
                         CarService carService,
-                        BookingService bookingService) {
-        super(props.getTelegramBotToken());
+                        BookingService bookingService,
+                        AvailabilityService availability,
+                        UpdateDispatcher dispatcher,
+                        UpdateOffsetTracker offsets,
+                        MeterRegistry meters) {
+        super(options, props.getTelegramBotToken());
         this.props = props;
         this.userService = userService;
         this.carService = carService;
         this.bookingService = bookingService;
+        this.availability = availability;
+        this.dispatcher = dispatcher;
+        this.offsets = offsets;
+        this.meters = meters;
+        this.sessions = new ChatSessions(props.getChatSessions(), carService, meters);
+        this.dedupe = new UpdateDeduplicator(props.getDedupe().getWindowSize(), props.getDedupe().getCoalesceWindow());
+        AppProperties.Sender cfg = props.getSender();
+        this.sender = new OutboundSender(this, cfg.getGlobalPerSecond(), cfg.getGlobalBurst(),
+                cfg.getPerChatPerSecond(), cfg.getPerChatBurst(), cfg.getMaxRetries(), meters);
+    }
+
+    /**
+     * Outbound queue used by all update handlers.
+     */
+    public OutboundSender getSender() {
+        return sender;
     }
 
     public void registerCommands() {
@@ -72,44 +107,122 @@ public class TestDriveBot extends TelegramLongPollingBot {
         }
     }
 
+    /**
+     * Delivers a batch of due reminders through the rate-limited outbound queue.
+     */
+    public void sendReminders(List<ReminderScheduler.Reminder> due) {
+        for (ReminderScheduler.Reminder r : due) {
+            CarDto car;
+            try {
+                car = carService.get(r.carId());
+            } catch (NotFoundException e) {
+                continue;
+            }
+            sender.send(r.chatId(), SendMessage.builder()
+                    .chatId(Long.toString(r.chatId()))
+                    .text(TextUtils.reminderText(car, r.slotUtc()))
+                    .build());
+        }
+        log.debug("Queued {} reminders", due.size());
+    }
+
+    /**
+     * Webhook mode: asks Telegram to push updates to the given URL.
+     */
+    public void registerWebhook(String url, String secretToken) {
+        try {
+            execute(SetWebhook.builder()
+                    .url(url)
+                    .secretToken(StringUtils.hasText(secretToken) ? secretToken : null)
+                    .build());
+            log.info("Telegram webhook registered: {}", url);
+        } catch (TelegramApiException e) {
+            log.error("Failed to register Telegram webhook {}: {}", url, e.getMessage());
+        }
+    }
+
     @Override
     public String getBotUsername() {
         return props.getTelegramBotUsername();
     }
 
+    /**
+     * Hands the update to the dispatcher; updates of the same chat are processed in order.
+     * Duplicates and repeated button presses are dropped here (callbacks are still acknowledged).
+     * Entry point for both long polling and the webhook controller.
+     */
     @Override
     public void onUpdateReceived(Update update) {
+        UpdateDeduplicator.Verdict verdict = dedupe.check(update);
+        if (verdict != UpdateDeduplicator.Verdict.ACCEPT) {
+            offsets.skipped(update.getUpdateId());
+            meters.counter("bot.updates.dropped", "reason", verdict.name().toLowerCase()).increment();
+            log.debug("Dropped update {}: {}", update.getUpdateId(), verdict);
+            if (verdict == UpdateDeduplicator.Verdict.COALESCED) {
+                ackQuiet(update.getCallbackQuery());
+            }
+            return;
+        }
+        long updateId = update.getUpdateId();
+        offsets.received(updateId);
+        dispatcher.dispatch(chatKey(update), () -> {
+            try {
+                handleUpdate(update);
+            } finally {
+                offsets.completed(updateId);
+            }
+        });
+    }
+
+    /**
+     * Processes a single update on the calling thread; timed as {@code bot.updates} by type and action.
+     */
+    public void handleUpdate(Update update) {
+        Timer.Sample sample = Timer.start(meters);
+        String type = "other";
+        String action = "none";
         try {
             if (update.hasMessage() && update.getMessage().hasText()) {
+                type = "message";
+                action = commandTag(update.getMessage().getText());
                 handleMessage(update.getMessage());
             } else if (update.hasCallbackQuery()) {
-                handleCallback(update.getCallbackQuery());
+                CallbackQuery cb = update.getCallbackQuery();
+                CallbackData cd = Callbacks.decode(cb.getData());
+                type = "callback";
+                action = cd == null ? "unknown" : cd.action().name();
+                handleCallback(cb, cd);
             }
         } catch (Exception e) {
             log.error("Error processing update", e);
+        } finally {
+            sample.stop(Timer.builder("bot.updates")
+                    .tag("type", type)
+                    .tag("action", action)
+                    .register(meters));
         }
     }
 
     /* ============== text messages ============== */
 
-    private void handleMessage(Message msg) throws TelegramApiException {
+    private void handleMessage(Message msg) {
         Long chatId = msg.getChatId();
         String text = msg.getText();
         User user = ensureUser(msg.getFrom());
 
         switch (text.toLowerCase()) {
-            case "/start" -> execute(StartCommand.greeting(chatId, user));
-            case "/help" -> execute(StartCommand.help(chatId));
-            case "/cars", "cars" -> execute(CarsCommand.carsList(chatId, carService.listAll()));
+            case "/start" -> sender.send(chatId, StartCommand.greeting(chatId, user));
+            case "/help" -> sender.send(chatId, StartCommand.help(chatId));
+            case "/cars", "cars" -> sender.send(chatId, CarsCommand.carsList(chatId, carService.catalog()));
             case "/my", "my bookings" ->
-                    execute(MyBookingsCommand.listMine(chatId, bookingService.getActiveForUser(user)));
-            default -> execute(StartCommand.menu(chatId));
+                    sender.send(chatId, MyBookingsCommand.listMine(chatId, bookingService.getActiveForUser(user)));
+            default -> sender.send(chatId, StartCommand.menu(chatId));
         }
     }
 
     /* ============== callbacks ============== */
 
-    private void handleCallback(CallbackQuery cb) {
+    private void handleCallback(CallbackQuery cb, CallbackData cd) {
         final String data = cb.getData();
         final Long chatId = cb.getMessage().getChatId();
         final Integer msgId = cb.getMessage().getMessageId();
@@ -117,122 +230,83 @@ public class TestDriveBot extends TelegramLongPollingBot {
         ackQuiet(cb);
 
         try {
-            if (START.equals(data)) {
-                editOrSendSafe(chatId, msgId, "What would you like to do?", KeyboardUtils.mainMenu());
-                return;
-            }
-
-            if (CARS.equals(data)) {
-                var cars = carService.listAll();
-                editOrSendSafe(chatId, msgId, "Choose a car:", KeyboardUtils.carsKeyboard(cars));
+            if (cd == null) {
+                resumeOrMenu(chatId, msgId);
                 return;
             }
-
-            String[] p = data.split("\\|");
-            switch (p[0]) {
-                case CAR -> {
-                    long carId = Long.parseLong(p[1]);
-                    editOrSendSafe(chatId, msgId,
-                            TextUtils.carSelected(carService.get(carId)),
-                            KeyboardUtils.daysKeyboard(carId, LocalDate.now(ZoneOffset.UTC), 7));
+            switch (cd.action()) {
+                case START, BACK_START ->
+                        editOrSendSafe(chatId, msgId, "What would you like to do?", KeyboardUtils.mainMenu());
+                case CARS, BACK_CARS -> {
+                    var cars = carService.catalog();
+                    editOrSendSafe(chatId, msgId, "Choose a car:", KeyboardUtils.carsKeyboard(cars));
                 }
-                case DAY -> {
-                    long carId = Long.parseLong(p[1]);
-                    LocalDate day = LocalDate.parse(p[2]);
-                    var slots = bookingService.freeSlotsUtc(carId, day);
-                    editOrSendSafe(chatId, msgId,
-                            "Pick a time (UTC) for " + day + ":",
-                            KeyboardUtils.timeSlotsKeyboard(carId, day, slots));
+                case CAR -> showDays(chatId, msgId, cd.carId(), TextUtils.carSelected(sessions.car(chatId, cd.carId())));
+                case BACK_DAY -> showDays(chatId, msgId, cd.carId(), "Pick a day (UTC):");
+                case DAY, BACK_TIME -> {
+                    long carId = cd.carId();
+                    LocalDate day = cd.day();
+                    sessions.day(chatId, carId, day);
+                    showTimes(chatId, msgId, carId, day);
                 }
                 case TIME -> {
-                    long carId = Long.parseLong(p[1]);
-                    OffsetDateTime slotUtc;
-                    // поддержка двух форматов: 1) 2025-08-14T16:00Z  2) DAY + HOUR
-                    if (p.length == 3) {
-                        slotUtc = OffsetDateTime.parse(p[2]).withOffsetSameInstant(ZoneOffset.UTC);
-                    } else if (p.length == 4) {
-                        LocalDate day = LocalDate.parse(p[2]);
-                        int hour = Integer.parseInt(p[3]);
-                        slotUtc = day.atTime(hour, 0).atOffset(ZoneOffset.UTC);
-                    } else {
-                        editOrSendSafe(chatId, msgId,
-                                "Could not parse time, please pick a day again:",
-                                KeyboardUtils.daysKeyboard(carId, LocalDate.now(ZoneOffset.UTC), 7));
-                        return;
-                    }
-
-                    CarDto car = carService.get(carId);
-                    editOrSendSafe(chatId, msgId, TextUtils.confirmText(car, slotUtc),
-                            KeyboardUtils.confirmKeyboard(carId, slotUtc));
+                    long carId = cd.carId();
+                    OffsetDateTime slotUtc = cd.slotUtc();
+                    sessions.slot(chatId, carId, slotUtc);
+                    showConfirm(chatId, msgId, sessions.car(chatId, carId), slotUtc);
                 }
                 case CONFIRM -> {
-                    long carId = Long.parseLong(p[1]);
-                    OffsetDateTime slot = OffsetDateTime.parse(p[2]).withOffsetSameInstant(ZoneOffset.UTC);
+                    long carId = cd.carId();
+                    OffsetDateTime slot = cd.slotUtc();
                     User user = ensureUser(cb.getFrom());
 
                     try {
                         bookingService.createBooking(user, carId, slot);
 
-                        CarDto car = carService.get(carId);
+                        CarDto car = sessions.car(chatId, carId);
+                        sessions.end(chatId);
                         editOrSendSafe(chatId, msgId, TextUtils.bookingConfirmedText(car, slot), null);
 
-                        execute(SendMessage.builder()
+                        sender.send(chatId, SendMessage.builder()
                                 .chatId(chatId.toString())
                                 .text("What would you like to do next?")
                                 .replyMarkup(KeyboardUtils.mainMenu())
                                 .build());
 
                     } catch (BadRequestException ex) {
-                        LocalDate day = slot.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+                        LocalDate day = slot.toLocalDate();
                         var slots = bookingService.freeSlotsUtc(carId, day);
                         editOrSendSafe(chatId, msgId,
                                 "❌ " + ex.getMessage() + "\nPlease choose another time:",
                                 KeyboardUtils.timeSlotsKeyboard(carId, day, slots));
                     } catch (ConflictException ex) {
-                        LocalDate day = slot.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+                        LocalDate day = slot.toLocalDate();
                         var slots = bookingService.freeSlotsUtc(carId, day);
                         editOrSendSafe(chatId, msgId,
                                 "⚠️ This slot was just booked by someone else. Pick another time:",
                                 KeyboardUtils.timeSlotsKeyboard(carId, day, slots));
                     } catch (NotFoundException ex) {
-                        var cars = carService.listAll();
+                        var cars = carService.catalog();
                         editOrSendSafe(chatId, msgId,
                                 "The selected car is no longer available. Please choose another:",
                                 KeyboardUtils.carsKeyboard(cars));
                     }
                 }
-                case BACK -> {
-                    String target = p[1];
-                    switch (target) {
-                        case "START" ->
-                                editOrSendSafe(chatId, msgId, "What would you like to do?", KeyboardUtils.mainMenu());
-                        case "CARS" -> {
-                            var cars = carService.listAll();
-                            editOrSendSafe(chatId, msgId, "Choose a car:", KeyboardUtils.carsKeyboard(cars));
-                        }
-                        case "DAY" -> {
-                            long carId = Long.parseLong(p[2]);
-                            editOrSendSafe(chatId, msgId,
-                                    "Pick a day (UTC):",
-                                    KeyboardUtils.daysKeyboard(carId, LocalDate.now(ZoneOffset.UTC), 7));
-                        }
-                        case "TIME" -> {
-                            long carId = Long.parseLong(p[2]);
-                            LocalDate day = LocalDate.parse(p[3]);
-                            var slots = bookingService.freeSlotsUtc(carId, day);
-                            editOrSendSafe(chatId, msgId,
-                                    "Pick a time (UTC) for " + day + ":",
-                                    KeyboardUtils.timeSlotsKeyboard(carId, day, slots));
-                        }
-                    }
+                case FIND -> {
+                    var earliest = availability.earliestFreeSlots(DAY_PICKER_DAYS);
+                    boolean any = earliest.stream().anyMatch(a -> a.getEarliestFreeSlot() != null);
+                    editOrSendSafe(chatId, msgId,
+                            any ? "Earliest free slot per car (UTC), next " + DAY_PICKER_DAYS + " days:"
+                                    : "No free slots in the next " + DAY_PICKER_DAYS + " days.",
+                            KeyboardUtils.earliestSlotsKeyboard(earliest));
                 }
                 case MY -> {
                     User user = ensureUser(cb.getFrom());
                     List<BookingDto> list = bookingService.getActiveForUser(user);
                     editOrSendSafe(chatId, msgId, MyBookingsCommand.buildText(list), MyBookingsCommand.buildKeyboard(list));
                 }
-                case CANCEL_BOOKING -> {
-                    long bookingId = Long.parseLong(p[1]);
+                case CANCEL_BOOK -> {
+                    long bookingId = cd.bookingId();
                     User user = ensureUser(cb.getFrom());
                     try {
                         bookingService.cancelByUser(user, bookingId);
@@ -242,60 +316,118 @@ public class TestDriveBot extends TelegramLongPollingBot {
                     List<BookingDto> list = bookingService.getActiveForUser(user);
                     editOrSendSafe(chatId, msgId, MyBookingsCommand.buildText(list), MyBookingsCommand.buildKeyboard(list));
                 }
-                case CANCEL -> {
+                case CANCEL_FLOW -> {
+                    sessions.end(chatId);
                     editOrSendSafe(chatId, msgId, "❌ Booking flow canceled.", null);
-                    execute(SendMessage.builder()
+                    sender.send(chatId, SendMessage.builder()
                             .chatId(chatId.toString())
                             .text("What would you like to do next?")
                             .replyMarkup(KeyboardUtils.mainMenu())
                             .build());
                 }
-                default -> editOrSendSafe(chatId, msgId, "What would you like to do?", KeyboardUtils.mainMenu());
             }
         } catch (Exception e) {
             log.error("Callback handling failed: {}", data, e);
-            try {
-                execute(SendMessage.builder()
-                        .chatId(chatId.toString())
-                        .text("Something went wrong. Here's the menu:")
-                        .replyMarkup(KeyboardUtils.mainMenu())
-                        .build());
-            } catch (TelegramApiException ignore) {
-            }
+            sender.send(chatId, SendMessage.builder()
+                    .chatId(chatId.toString())
+                    .text("Something went wrong. Here's the menu:")
+                    .replyMarkup(KeyboardUtils.mainMenu())
+                    .build());
         }
     }
 
     /* ============== helpers ============== */
 
-    private void editOrSendSafe(Long chatId, Integer messageId, String text, InlineKeyboardMarkup kb) throws TelegramApiException {
-        try {
-            if (messageId != null) {
-                execute(EditMessageText.builder()
-                        .chatId(chatId.toString())
-                        .messageId(messageId)
-                        .text(text)
-                        .replyMarkup(kb)
-                        .build());
-                return;
-            }
-        } catch (TelegramApiRequestException ex) {
-            log.debug("Edit failed, falling back to send: {}", ex.getMessage());
+    /**
+     * Bounded tag value for a text message: the known command or "text".
+     */
+    private static String commandTag(String text) {
+        return switch (text.toLowerCase()) {
+            case "/start", "/help", "/cars", "/my" -> text.toLowerCase();
+            case "cars" -> "/cars";
+            case "my bookings" -> "/my";
+            default -> "text";
+        };
+    }
+
+    private static Long chatKey(Update update) {
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        if (update.hasCallbackQuery()) {
+            CallbackQuery cb = update.getCallbackQuery();
+            return cb.getMessage() != null ? cb.getMessage().getChatId() : cb.getFrom().getId();
+        }
+        return update.getUpdateId() == null ? 0L : update.getUpdateId().longValue();
+    }
+
+    /**
+     * Day picker for the next {@link #DAY_PICKER_DAYS} days with free-slot counts (one availability pass).
+     */
+    private void showDays(Long chatId, Integer msgId, long carId, String text) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        int[] counts = availability.freeSlotCounts(carId, today, DAY_PICKER_DAYS);
+        if (Arrays.stream(counts).allMatch(c -> c == 0)) {
+            text = "No free slots in the next " + DAY_PICKER_DAYS + " days for this car. Please go back and choose another:";
         }
-        execute(SendMessage.builder()
+        editOrSendSafe(chatId, msgId, text, KeyboardUtils.daysKeyboard(carId, today, counts));
+    }
+
+    private void showTimes(Long chatId, Integer msgId, long carId, LocalDate day) {
+        var slots = bookingService.freeSlotsUtc(carId, day);
+        editOrSendSafe(chatId, msgId,
+                "Pick a time (UTC) for " + day + ":",
+                KeyboardUtils.timeSlotsKeyboard(carId, day, slots));
+    }
+
+    private void showConfirm(Long chatId, Integer msgId, CarDto car, OffsetDateTime slotUtc) {
+        editOrSendSafe(chatId, msgId, TextUtils.confirmText(car, slotUtc),
+                KeyboardUtils.confirmKeyboard(car.getId(), slotUtc));
+    }
+
+    /**
+     * A button that cannot be decoded (e.g. from an old message): continue the chat's booking flow
+     * from its session if there is one, otherwise show the main menu.
+     */
+    private void resumeOrMenu(Long chatId, Integer msgId) {
+        ChatSessions.Session s = sessions.get(chatId);
+        if (s == null) {
+            editOrSendSafe(chatId, msgId, "What would you like to do?", KeyboardUtils.mainMenu());
+        } else if (s.slot() != null && s.slot().isAfter(OffsetDateTime.now(ZoneOffset.UTC))) {
+            showConfirm(chatId, msgId, s.car(), s.slot());
+        } else if (s.day() != null && !s.day().isBefore(LocalDate.now(ZoneOffset.UTC))) {
+            showTimes(chatId, msgId, s.car().getId(), s.day());
+        } else {
+            showDays(chatId, msgId, s.car().getId(), TextUtils.carSelected(s.car()));
+        }
+    }
+
+    /**
+     * Queues an edit of the message; falls back to a new message if the edit is rejected.
+     */
+    private void editOrSendSafe(Long chatId, Integer messageId, String text, InlineKeyboardMarkup kb) {
+        SendMessage send = SendMessage.builder()
                 .chatId(chatId.toString())
                 .text(text)
                 .replyMarkup(kb)
-                .build());
+                .build();
+        if (messageId == null) {
+            sender.send(chatId, send);
+            return;
+        }
+        sender.editOrSend(chatId, EditMessageText.builder()
+                .chatId(chatId.toString())
+                .messageId(messageId)
+                .text(text)
+                .replyMarkup(kb)
+                .build(), send);
     }
 
     private void ackQuiet(CallbackQuery cb) {
-        try {
-            execute(AnswerCallbackQuery.builder()
-                    .callbackQueryId(cb.getId())
-                    .showAlert(false)
-                    .build());
-        } catch (TelegramApiException ignored) {
-        }
+        sender.sendUnordered(AnswerCallbackQuery.builder()
+                .callbackQueryId(cb.getId())
+                .showAlert(false)
+                .build());
     }
 
     private User ensureUser(org.telegram.telegrambots.meta.api.objects.User tgUser) {
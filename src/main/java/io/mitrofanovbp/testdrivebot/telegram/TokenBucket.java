@@ -0,0 +1,52 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+/**
+ * Token bucket rate limiter. Not thread-safe: owned by the sender's scheduler thread.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param ratePerSecond sustained rate
+     * @param burst         bucket capacity (max tokens available at once)
+     */
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = this.capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Nanos until one token is available, 0 if available now.
+     */
+    long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    void consume() {
+        tokens -= 1;
+    }
+
+    boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
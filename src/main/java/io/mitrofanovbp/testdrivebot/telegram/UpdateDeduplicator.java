@@ -0,0 +1,132 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Drops redundant updates before they are dispatched:
+ * <ul>
+ *     <li>an update id seen recently (webhook retries, poller redelivery);</li>
+ *     <li>a callback query id seen recently;</li>
+ *     <li>the same button of the same message pressed again within the coalescing window (double taps).</li>
+ * </ul>
+ * Each window is a fixed-size, direct-mapped table updated with CAS: bounded memory and no locks.
+ * It is best effort: a key pushed out by a colliding key is forgotten, so a late duplicate may slip through
+ * (the booking unique index still guards correctness), but a new key is never reported as seen.
+ */
+public class UpdateDeduplicator {
+
+    public enum Verdict {
+        ACCEPT, DUPLICATE_UPDATE, DUPLICATE_CALLBACK, COALESCED
+    }
+
+    private final RecentKeys updates;
+    private final RecentKeys callbacks;
+    private final RecentKeys taps;
+    private final long coalesceNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param windowSize     slots per table (rounded up to a power of two)
+     * @param coalesceWindow repeated presses of the same button within this window are dropped
+     */
+    public UpdateDeduplicator(int windowSize, Duration coalesceWindow) {
+        this(windowSize, coalesceWindow, System::nanoTime);
+    }
+
+    /**
+     * For tests: coalescing measured on the given clock.
+     */
+    UpdateDeduplicator(int windowSize, Duration coalesceWindow, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.updates = new RecentKeys(windowSize);
+        this.callbacks = new RecentKeys(windowSize);
+        this.taps = new RecentKeys(windowSize);
+        this.coalesceNanos = coalesceWindow.toNanos();
+    }
+
+    public Verdict check(Update update) {
+        long now = nanoClock.getAsLong();
+        if (update.getUpdateId() != null && !updates.markIfAbsent(update.getUpdateId(), now, Long.MAX_VALUE)) {
+            return Verdict.DUPLICATE_UPDATE;
+        }
+        if (!update.hasCallbackQuery()) {
+            return Verdict.ACCEPT;
+        }
+        CallbackQuery cb = update.getCallbackQuery();
+        if (cb.getId() != null && !callbacks.markIfAbsent(hash(cb.getId(), FNV_OFFSET), now, Long.MAX_VALUE)) {
+            return Verdict.DUPLICATE_CALLBACK;
+        }
+        if (cb.getMessage() != null && cb.getData() != null && coalesceNanos > 0) {
+            long key = mix(cb.getMessage().getChatId() * 31 + cb.getMessage().getMessageId());
+            if (!taps.markIfAbsent(hash(cb.getData(), key), now, coalesceNanos)) {
+                return Verdict.COALESCED;
+            }
+        }
+        return Verdict.ACCEPT;
+    }
+
+    /* ===================== hashing ===================== */
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, seeded.
+     */
+    private static long hash(String s, long seed) {
+        long h = seed;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /* ===================== window ===================== */
+
+    private record Stamp(long key, long atNanos) {
+    }
+
+    private static final class RecentKeys {
+        private final AtomicReferenceArray<Stamp> slots;
+        private final int mask;
+
+        RecentKeys(int size) {
+            int capacity = Integer.highestOneBit(Math.max(16, size - 1)) << 1;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Records the key; false if the same key was recorded less than {@code windowNanos} ago.
+         */
+        boolean markIfAbsent(long key, long now, long windowNanos) {
+            int idx = (int) mix(key) & mask;
+            Stamp next = new Stamp(key, now);
+            while (true) {
+                Stamp prev = slots.get(idx);
+                if (prev != null && prev.key() == key && now - prev.atNanos() < windowNanos) {
+                    return false;
+                }
+                if (slots.compareAndSet(idx, prev, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
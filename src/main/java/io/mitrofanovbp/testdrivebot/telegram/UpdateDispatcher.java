@@ -0,0 +1,169 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans updates out to a worker pool while keeping strict ordering per key (chat id).
+ * <p>
+ * Each key owns a chain of futures: a new task runs after the previous task for the same key
+ * completes, tasks for different keys run in parallel. The chain is dropped once it drains.
+ * <p>
+ * At most {@code queueCapacity} tasks are queued or running at a time: when the dispatcher is full,
+ * {@link #dispatch} blocks the caller (the poller or a webhook request) until a task finishes, so a
+ * backlog slows intake down instead of piling up in memory.
+ */
+public class UpdateDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateDispatcher.class);
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final boolean virtualThreads;
+    private final int queueCapacity;
+    private final Semaphore slots;
+
+    private final ConcurrentMap<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * @param workers        platform worker threads (ignored when virtual threads are used)
+     * @param virtualThreads use a virtual-thread-per-task executor if the runtime provides one
+     * @param queueCapacity  tasks queued or running before {@link #dispatch} blocks
+     */
+    public UpdateDispatcher(int workers, boolean virtualThreads, int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.slots = new Semaphore(this.queueCapacity);
+        ExecutorService virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.workers = 0;
+            this.virtualThreads = true;
+        } else {
+            this.workers = Math.max(1, workers);
+            this.executor = Executors.newFixedThreadPool(this.workers, new WorkerThreadFactory());
+            this.virtualThreads = false;
+        }
+        log.info("Update dispatcher started: {}, queue capacity {}",
+                this.virtualThreads ? "virtual threads" : this.workers + " workers", this.queueCapacity);
+    }
+
+    /**
+     * For tests: runs tasks on the given executor.
+     */
+    UpdateDispatcher(ExecutorService executor, int queueCapacity) {
+        this.executor = executor;
+        this.workers = 0;
+        this.virtualThreads = false;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.slots = new Semaphore(this.queueCapacity);
+    }
+
+    /**
+     * Schedules the task after all previously dispatched tasks with the same key;
+     * blocks while the dispatcher is full.
+     */
+    public void dispatch(Long key, Runnable task) {
+        // uninterruptible: a task the caller has already registered (offset tracking) must not be lost
+        slots.acquireUninterruptibly();
+        pending.incrementAndGet();
+        CompletableFuture<Void> next = tails.compute(key, (k, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .handleAsync((r, e) -> {
+                            try {
+                                task.run();
+                            } catch (RuntimeException ex) {
+                                log.error("Dispatched task failed for key {}", k, ex);
+                            } finally {
+                                pending.decrementAndGet();
+                                slots.release();
+                            }
+                            return null;
+                        }, executor));
+        next.whenComplete((r, e) -> tails.remove(key, next));
+    }
+
+    /**
+     * Tasks accepted but not finished yet (queued + running).
+     */
+    public int getQueueDepth() {
+        return pending.get();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Keys (chats) with queued or running tasks.
+     */
+    public int getActiveKeys() {
+        return tails.size();
+    }
+
+    /**
+     * Platform worker count, 0 when running on virtual threads.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Waits for accepted tasks to finish, then stops the workers.
+     */
+    public void shutdown() {
+        try {
+            // a chained task reaches the executor only when its predecessor finishes, so drain before
+            // shutting the executor down: every slot free means nothing is queued or running
+            if (slots.tryAcquire(queueCapacity, 10, TimeUnit.SECONDS)) {
+                slots.release(queueCapacity);
+            } else {
+                log.warn("Update dispatcher did not drain in time, {} tasks pending", pending.get());
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() via reflection: the build targets Java 17.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on this runtime, using platform workers");
+            return null;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "bot-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import io.mitrofanovbp.testdrivebot.repository.UpdateOffsetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the last fully processed update id and persists it in the background.
+ * <p>
+ * Updates of different chats complete out of order, so the stored offset is a low watermark:
+ * the highest id such that every update received up to it has been handled. The hot path only
+ * touches a lock-free set; a single background thread writes the watermark at most once per
+ * flush interval, and once more on shutdown.
+ * <p>
+ * After a week without updates Telegram may start update ids from a random number, possibly
+ * below the watermark; the first update after such a pause starts the tracking over.
+ */
+public class UpdateOffsetTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateOffsetTracker.class);
+
+    static final long ID_SEQUENCE_RESET_MS = Duration.ofDays(7).toMillis();
+
+    private final UpdateOffsetRepository repository;
+    private final String botUsername;
+    private final ScheduledExecutorService flusher;
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicLong highestReceived = new AtomicLong(-1);
+    private volatile long lastReceivedMillis = System.currentTimeMillis();
+    private volatile long lastFlushed = -1;
+
+    public UpdateOffsetTracker(UpdateOffsetRepository repository, String botUsername, Duration flushInterval) {
+        this.repository = repository;
+        this.botUsername = botUsername;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "update-offset-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = Math.max(100, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Restores the stored offset; its age tells whether Telegram may have started a new id sequence since.
+     */
+    public void load() {
+        repository.find(botUsername).ifPresent(stored -> {
+            lastFlushed = stored.updateId();
+            highestReceived.accumulateAndGet(stored.updateId(), Math::max);
+            lastReceivedMillis = stored.updatedAt().toEpochMilli();
+            log.info("Stored update offset {} from {}", stored.updateId(), stored.updatedAt());
+        });
+    }
+
+    /**
+     * Marks the update as taken for processing; must be paired with {@link #completed(long)}.
+     */
+    public void received(long updateId) {
+        rebaseIfRestarted(updateId);
+        inFlight.add(updateId);
+        highestReceived.accumulateAndGet(updateId, Math::max);
+        lastReceivedMillis = System.currentTimeMillis();
+    }
+
+    public void completed(long updateId) {
+        inFlight.remove(updateId);
+    }
+
+    /**
+     * Marks the update as handled without processing (dropped as a duplicate or coalesced).
+     */
+    public void skipped(long updateId) {
+        rebaseIfRestarted(updateId);
+        highestReceived.accumulateAndGet(updateId, Math::max);
+        lastReceivedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Whether the update has not been taken yet: above every id seen so far, or the start of a new id sequence.
+     */
+    public boolean isNew(long updateId) {
+        return updateId > highestReceived.get() || sequenceMayRestart();
+    }
+
+    /**
+     * Offset for the next getUpdates: one past the watermark, so unfinished updates stay unconfirmed.
+     * 0 (the earliest unconfirmed update) when nothing is known or ids may have been restarted.
+     */
+    public long nextOffset() {
+        if (sequenceMayRestart()) {
+            return 0;
+        }
+        return watermark() + 1;
+    }
+
+    /**
+     * Highest id with no unfinished update at or below it, or -1 if nothing was processed yet.
+     */
+    long watermark() {
+        long highest = highestReceived.get();
+        // iterator instead of isEmpty() + first(): the last entry may complete in between
+        Iterator<Long> it = inFlight.iterator();
+        return it.hasNext() ? Math.min(highest, it.next() - 1) : highest;
+    }
+
+    private boolean sequenceMayRestart() {
+        return inFlight.isEmpty() && System.currentTimeMillis() - lastReceivedMillis >= ID_SEQUENCE_RESET_MS;
+    }
+
+    private void rebaseIfRestarted(long updateId) {
+        long highest = highestReceived.get();
+        if (updateId <= highest && sequenceMayRestart()) {
+            highestReceived.compareAndSet(highest, updateId - 1);
+            log.info("Update ids restarted at {} (previous sequence ended at {})", updateId, highest);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            long offset = watermark();
+            if (offset >= 0 && offset != lastFlushed) {
+                repository.save(botUsername, offset);
+                lastFlushed = offset;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist update offset: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        log.info("Update offset tracker stopped at {}", lastFlushed);
+    }
+}
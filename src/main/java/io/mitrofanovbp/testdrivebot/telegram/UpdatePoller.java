@@ -0,0 +1,112 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.methods.updates.GetUpdates;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.util.List;
+
+/**
+ * Long polling that confirms updates only once they have been processed.
+ * <p>
+ * DefaultBotSession confirms everything it fetched on its next getUpdates, whether or not a handler
+ * ran, so updates still queued at a crash were gone. Here every getUpdates asks for
+ * {@link UpdateOffsetTracker#nextOffset()}, one past the processed watermark: queued and running updates
+ * stay unconfirmed and are fetched again after a restart, and ids already taken are skipped. While a
+ * full batch is still being processed the same updates keep coming back, which holds polling back
+ * until the dispatcher catches up.
+ */
+public class UpdatePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdatePoller.class);
+
+    /**
+     * Pause when a poll brought nothing new (empty answer or only updates already taken).
+     */
+    private static final long IDLE_PAUSE_MS = 200;
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final TestDriveBot bot;
+    private final UpdateOffsetTracker offsets;
+    private final int limit;
+    private final int timeoutSeconds;
+    private final List<String> allowedUpdates;
+    private final Thread thread;
+
+    private volatile boolean running;
+
+    public UpdatePoller(TestDriveBot bot, UpdateOffsetTracker offsets, DefaultBotOptions options) {
+        this.bot = bot;
+        this.offsets = offsets;
+        this.limit = options.getGetUpdatesLimit();
+        this.timeoutSeconds = options.getGetUpdatesTimeout();
+        this.allowedUpdates = options.getAllowedUpdates();
+        this.thread = new Thread(this::run, "update-poller");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        offsets.load();
+        running = true;
+        thread.start();
+        log.info("Long polling started from offset {}", offsets.nextOffset());
+    }
+
+    private void run() {
+        long backoffMs = MIN_BACKOFF_MS;
+        while (running) {
+            try {
+                List<Update> updates = bot.execute(GetUpdates.builder()
+                        .offset((int) offsets.nextOffset())
+                        .limit(limit)
+                        .timeout(timeoutSeconds)
+                        .allowedUpdates(allowedUpdates)
+                        .build());
+                backoffMs = MIN_BACKOFF_MS;
+                int fresh = 0;
+                for (Update update : updates) {
+                    if (running && offsets.isNew(update.getUpdateId())) {
+                        bot.onUpdateReceived(update);
+                        fresh++;
+                    }
+                }
+                if (fresh == 0) {
+                    Thread.sleep(IDLE_PAUSE_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (TelegramApiException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("getUpdates failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+
+    /**
+     * Stops fetching; an in-flight getUpdates is abandoned (its updates stay unconfirmed).
+     */
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Long polling stopped at offset {}", offsets.nextOffset());
+    }
+}
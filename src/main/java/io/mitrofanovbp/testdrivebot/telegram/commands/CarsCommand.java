@@ -1,6 +1,7 @@
 package io.mitrofanovbp.testdrivebot.telegram.commands;
 
 import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.service.CarCatalog;
 import io.mitrofanovbp.testdrivebot.telegram.utils.KeyboardUtils;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 
@@ -10,6 +11,14 @@ import java.util.List;
  * Shows car list to start booking flow.
  */
 public class CarsCommand {
+    public static SendMessage carsList(Long chatId, CarCatalog catalog) {
+        return SendMessage.builder()
+                .chatId(chatId.toString())
+                .text(catalog.getCars().isEmpty() ? "No cars yet." : "Choose a car:")
+                .replyMarkup(KeyboardUtils.carsKeyboard(catalog))
+                .build();
+    }
+
     public static SendMessage carsList(Long chatId, List<CarDto> cars) {
         return SendMessage.builder()
                 .chatId(chatId.toString())
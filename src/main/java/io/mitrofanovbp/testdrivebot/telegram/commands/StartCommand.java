@@ -29,6 +29,7 @@ public class StartCommand {
                 
                 • Tap *Cars* to browse and book a test drive.
                 • Tap *My bookings* to view or cancel your active bookings.
+                • Tap *Find a free slot* to see the earliest free time of every car.
                 
                 All times are handled in UTC and slots are hourly between 09:00–18:00.
                 """;
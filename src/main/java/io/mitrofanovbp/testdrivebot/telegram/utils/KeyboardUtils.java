@@ -1,7 +1,10 @@
 package io.mitrofanovbp.testdrivebot.telegram.utils;
 
 import io.mitrofanovbp.testdrivebot.dto.BookingDto;
+import io.mitrofanovbp.testdrivebot.dto.CarAvailabilityDto;
 import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.service.CarCatalog;
+import io.mitrofanovbp.testdrivebot.telegram.Callbacks;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
@@ -12,8 +15,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-
-import static io.mitrofanovbp.testdrivebot.telegram.Callbacks.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class KeyboardUtils {
     private KeyboardUtils() {
@@ -40,18 +43,51 @@ public final class KeyboardUtils {
         return InlineKeyboardButton.builder().text(text).callbackData(data).build();
     }
 
-    private static InlineKeyboardButton backTo(String target) {
-        return btn("⬅️ Back", BACK + "|" + target);
+    private static InlineKeyboardButton back(String data) {
+        return btn("⬅️ Back", data);
     }
 
+    /* ---------- Pre-rendered keyboards ----------
+     * Static keyboards are built once and shared; callers must not mutate returned markups.
+     */
+    private static final InlineKeyboardMarkup MAIN_MENU = InlineKeyboardMarkup.builder()
+            .keyboard(List.of(
+                    List.of(
+                            btn("Cars 🚗", Callbacks.CARS),
+                            btn("My bookings 📅", Callbacks.MY)
+                    ),
+                    List.of(btn("Find a free slot 🔎", Callbacks.FIND))
+            ))
+            .build();
+
+    private static final InlineKeyboardMarkup BACK_ONLY = InlineKeyboardMarkup.builder()
+            .keyboard(List.of(List.of(back(Callbacks.BACK_START))))
+            .build();
+
+    private static final InlineKeyboardMarkup BACK_AND_CANCEL = InlineKeyboardMarkup.builder()
+            .keyboard(List.of(List.of(back(Callbacks.BACK_START), btn("✖️ Cancel", Callbacks.CANCEL_FLOW))))
+            .build();
+
+    private static final InlineKeyboardMarkup CANCEL_ONLY = InlineKeyboardMarkup.builder()
+            .keyboard(List.of(List.of(btn("✖️ Cancel", Callbacks.CANCEL_FLOW))))
+            .build();
+
+    /**
+     * Cars keyboard of the latest catalog version seen.
+     */
+    private static volatile VersionedKeyboard carsKeyboard;
+
+    /**
+     * Day pickers for {@link #dayPickersStart}, keyed by car id and packed free-slot counts.
+     */
+    private static final int MAX_DAY_PICKERS = 1024;
+    private static final int MAX_MEMO_DAYS = 15;
+    private static volatile LocalDate dayPickersStart;
+    private static volatile Map<DayPickerKey, InlineKeyboardMarkup> dayPickers = new ConcurrentHashMap<>();
+
     /* ---------- Main menu ---------- */
     public static InlineKeyboardMarkup mainMenu() {
-        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-        rows.add(List.of(
-                btn("Cars 🚗", CARS),
-                btn("My bookings 📅", MY)
-        ));
-        return InlineKeyboardMarkup.builder().keyboard(rows).build();
+        return MAIN_MENU;
     }
 
     // legacy alias
@@ -60,26 +96,89 @@ public final class KeyboardUtils {
     }
 
     /* ---------- Cars list ---------- */
+
+    /**
+     * Cars keyboard for the catalog snapshot; rebuilt only when the catalog version changes.
+     */
+    public static InlineKeyboardMarkup carsKeyboard(CarCatalog catalog) {
+        VersionedKeyboard cached = carsKeyboard;
+        if (cached != null && cached.version == catalog.getVersion()) {
+            return cached.markup;
+        }
+        InlineKeyboardMarkup markup = carsKeyboard(catalog.getCars());
+        if (cached == null || cached.version < catalog.getVersion()) {
+            carsKeyboard = new VersionedKeyboard(catalog.getVersion(), markup);
+        }
+        return markup;
+    }
+
     public static InlineKeyboardMarkup carsKeyboard(List<CarDto> cars) {
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
         for (CarDto c : cars) {
-            rows.add(List.of(btn(c.getModel(), CAR + "|" + c.getId())));
+            rows.add(List.of(btn(c.getModel(), Callbacks.car(c.getId()))));
         }
-        rows.add(List.of(backTo("START")));
+        rows.add(List.of(back(Callbacks.BACK_START)));
         return InlineKeyboardMarkup.builder().keyboard(rows).build();
     }
 
     /* ---------- Day picker ---------- */
-    public static InlineKeyboardMarkup daysKeyboard(long carId, LocalDate start, int days) {
+
+    /**
+     * Day picker with the number of free slots on each button; fully booked days are left out.
+     * Memoized per (carId, start day, free counts); the memo is dropped when the start day changes.
+     *
+     * @param freeCounts free slots per day, starting at {@code start}
+     */
+    public static InlineKeyboardMarkup daysKeyboard(long carId, LocalDate start, int[] freeCounts) {
+        if (freeCounts.length > MAX_MEMO_DAYS) {
+            return buildDaysKeyboard(carId, start, freeCounts);
+        }
+        Map<DayPickerKey, InlineKeyboardMarkup> memo = dayPickers;
+        if (!start.equals(dayPickersStart)) {
+            synchronized (KeyboardUtils.class) {
+                if (!start.equals(dayPickersStart)) {
+                    dayPickers = new ConcurrentHashMap<>();
+                    dayPickersStart = start;
+                }
+                memo = dayPickers;
+            }
+        }
+        DayPickerKey key = new DayPickerKey(carId, packCounts(freeCounts));
+        InlineKeyboardMarkup markup = memo.get(key);
+        if (markup == null) {
+            markup = buildDaysKeyboard(carId, start, freeCounts);
+            if (memo.size() < MAX_DAY_PICKERS) {
+                memo.putIfAbsent(key, markup);
+            }
+        }
+        return markup;
+    }
+
+    private static InlineKeyboardMarkup buildDaysKeyboard(long carId, LocalDate start, int[] freeCounts) {
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-        for (int i = 0; i < days; i++) {
+        for (int i = 0; i < freeCounts.length; i++) {
+            if (freeCounts[i] == 0) {
+                continue;
+            }
             LocalDate d = start.plusDays(i);
-            rows.add(List.of(btn(d.format(DAY_FMT), DAY + "|" + carId + "|" + d)));
+            String label = d.format(DAY_FMT) + " · " + freeCounts[i] + " free";
+            rows.add(List.of(btn(label, Callbacks.day(carId, d))));
         }
-        rows.add(List.of(backTo("CARS")));
+        rows.add(List.of(back(Callbacks.BACK_CARS)));
         return InlineKeyboardMarkup.builder().keyboard(rows).build();
     }
 
+    /**
+     * Day count in the low 4 bits, then 4 bits per day (a day has at most 9 slots).
+     */
+    private static long packCounts(int[] freeCounts) {
+        long packed = freeCounts.length;
+        for (int i = 0; i < freeCounts.length; i++) {
+            packed |= (long) (freeCounts[i] & 0xF) << (4 * (i + 1));
+        }
+        return packed;
+    }
+
     /* ---------- Time slots (hour picker) ---------- */
     public static InlineKeyboardMarkup timeSlotsKeyboard(long carId, LocalDate dayUtc, List<OffsetDateTime> slots) {
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
@@ -87,10 +186,9 @@ public final class KeyboardUtils {
             OffsetDateTime z = slot.withOffsetSameInstant(ZoneOffset.UTC)
                     .withMinute(0).withSecond(0).withNano(0);
             String label = HOUR_FMT.format(z) + " UTC";
-            String data = TIME + "|" + carId + "|" + z.toString();
-            rows.add(List.of(btn(label, data)));
+            rows.add(List.of(btn(label, Callbacks.time(carId, z))));
         }
-        rows.add(List.of(backTo("DAY|" + carId)));
+        rows.add(List.of(back(Callbacks.backToDays(carId))));
         return InlineKeyboardMarkup.builder().keyboard(rows).build();
     }
 
@@ -98,24 +196,41 @@ public final class KeyboardUtils {
     public static InlineKeyboardMarkup confirmKeyboard(long carId, OffsetDateTime slotUtc) {
         OffsetDateTime z = slotUtc.withOffsetSameInstant(ZoneOffset.UTC)
                 .withMinute(0).withSecond(0).withNano(0);
-        String day = z.toLocalDate().toString();
-
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-        rows.add(List.of(btn("✅ Confirm", CONFIRM + "|" + carId + "|" + z)));
+        rows.add(List.of(btn("✅ Confirm", Callbacks.confirm(carId, z))));
         rows.add(List.of(
-                btn("⬅️ Back", BACK + "|TIME|" + carId + "|" + day),
-                btn("✖️ Cancel", CANCEL_FLOW)
+                back(Callbacks.backToTimes(carId, z.toLocalDate())),
+                btn("✖️ Cancel", Callbacks.CANCEL_FLOW)
         ));
         return InlineKeyboardMarkup.builder().keyboard(rows).build();
     }
 
+    /* ---------- Free slot search ---------- */
+
+    /**
+     * One button per car with its earliest free slot (leads straight to the confirm screen).
+     */
+    public static InlineKeyboardMarkup earliestSlotsKeyboard(List<CarAvailabilityDto> list) {
+        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
+        for (CarAvailabilityDto a : list) {
+            if (a.getEarliestFreeSlot() == null) {
+                continue;
+            }
+            OffsetDateTime z = a.getEarliestFreeSlot().withOffsetSameInstant(ZoneOffset.UTC);
+            String label = a.getCarModel() + " — " + z.format(DAY_FMT) + ", " + HOUR_FMT.format(z);
+            rows.add(List.of(btn(label, Callbacks.time(a.getCarId(), z))));
+        }
+        rows.add(List.of(back(Callbacks.BACK_START)));
+        return InlineKeyboardMarkup.builder().keyboard(rows).build();
+    }
+
     /* ---------- My bookings ---------- */
     public static InlineKeyboardMarkup myBookingsKeyboard(List<BookingDto> list) {
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
         for (BookingDto b : list) {
-            rows.add(List.of(btn("Cancel #" + b.getId(), CANCEL_BOOK + "|" + b.getId())));
+            rows.add(List.of(btn("Cancel #" + b.getId(), Callbacks.cancelBooking(b.getId()))));
         }
-        rows.add(List.of(backTo("START")));
+        rows.add(List.of(back(Callbacks.BACK_START)));
         return InlineKeyboardMarkup.builder().keyboard(rows).build();
     }
 
@@ -124,20 +239,20 @@ public final class KeyboardUtils {
     }
 
     public static InlineKeyboardMarkup backKeyboard() {
-        return InlineKeyboardMarkup.builder()
-                .keyboard(List.of(List.of(backTo("START"))))
-                .build();
+        return BACK_ONLY;
     }
 
     public static InlineKeyboardMarkup backAndCancelKeyboard() {
-        return InlineKeyboardMarkup.builder()
-                .keyboard(List.of(List.of(backTo("START"), btn("✖️ Cancel", CANCEL_FLOW))))
-                .build();
+        return BACK_AND_CANCEL;
     }
 
     public static InlineKeyboardMarkup cancelKeyboard() {
-        return InlineKeyboardMarkup.builder()
-                .keyboard(List.of(List.of(btn("✖️ Cancel", CANCEL_FLOW))))
-                .build();
+        return CANCEL_ONLY;
+    }
+
+    private record VersionedKeyboard(long version, InlineKeyboardMarkup markup) {
+    }
+
+    private record DayPickerKey(long carId, long packedCounts) {
     }
 }
@@ -46,4 +46,8 @@ public class TextUtils {
     public static String bookingConfirmedText(CarDto car, OffsetDateTime slotUtc) {
         return "✅ Booking confirmed!\n\n" + bookingSummary(car, slotUtc);
     }
+
+    public static String reminderText(CarDto car, OffsetDateTime slotUtc) {
+        return "⏰ Reminder: your test drive is coming up.\n\n" + bookingSummary(car, slotUtc);
+    }
 }
@@ -0,0 +1,2 @@
+-- Flyway V3: support keyset pagination of admin listings ordered by (datetime DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_bookings_datetime_id ON bookings (datetime DESC, id DESC);
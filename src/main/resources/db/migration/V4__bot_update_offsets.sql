@@ -0,0 +1,6 @@
+-- Flyway V4: last fully processed Telegram update id per bot, used to resume long polling after a restart
+CREATE TABLE IF NOT EXISTS bot_update_offsets (
+    bot_username  TEXT PRIMARY KEY,
+    update_id     BIGINT NOT NULL,
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,14 @@
+-- Flyway V5: archive of past bookings, moved out of the hot bookings table by BookingArchiveService
+CREATE TABLE IF NOT EXISTS bookings_history (
+    id           BIGINT PRIMARY KEY,
+    user_id      BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    car_id       BIGINT NOT NULL REFERENCES cars(id) ON DELETE CASCADE,
+    datetime     TIMESTAMPTZ NOT NULL,
+    status       TEXT NOT NULL,
+    archived_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT chk_booking_history_status CHECK (status IN ('CONFIRMED','CANCELED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_history_user_id ON bookings_history (user_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_history_car_id ON bookings_history (car_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_history_datetime_id ON bookings_history (datetime DESC, id DESC);
@@ -0,0 +1,23 @@
+-- Flyway V6: composite indexes matched to the repository queries.
+-- Status is bound as a parameter, so prepared statements may run with generic plans that cannot use
+-- partial (WHERE status = ...) indexes; status is left to the heap filter on small per-user / per-car ranges.
+
+-- My bookings (user_id = ? and status = ? order by datetime) and admin listings filtered by user,
+-- ordered by (datetime desc, id desc); replaces idx_bookings_user_id
+CREATE INDEX IF NOT EXISTS idx_bookings_user_datetime ON bookings (user_id, datetime DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_user_id;
+
+-- Per-car slot ranges and admin listings filtered by car; replaces idx_bookings_car_id
+CREATE INDEX IF NOT EXISTS idx_bookings_car_datetime ON bookings (car_id, datetime DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_car_id;
+
+-- Range scans on datetime alone (availability, reminders, archiver) are served by V3's idx_bookings_datetime_id,
+-- scanned backwards where ascending order is needed; V1's single-column index is a redundant prefix of it
+DROP INDEX IF EXISTS idx_bookings_datetime;
+
+-- Same for the archive, which is only read by admin listings
+CREATE INDEX IF NOT EXISTS idx_bookings_history_user_datetime ON bookings_history (user_id, datetime DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_history_user_id;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_history_car_datetime ON bookings_history (car_id, datetime DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_history_car_id;
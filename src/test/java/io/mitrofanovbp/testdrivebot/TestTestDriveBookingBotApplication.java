@@ -0,0 +1,14 @@
+package io.mitrofanovbp.testdrivebot;
+
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Runs the application with test sources on the classpath ({@code mvn spring-boot:test-run}),
+ * which makes the {@code telegram-stub} Bot API available for offline webhook runs.
+ */
+public class TestTestDriveBookingBotApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(TestDriveBookingBotApplication::main).run(args);
+    }
+}
@@ -0,0 +1,86 @@
+package io.mitrofanovbp.testdrivebot.controller;
+
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.telegram.TestDriveBot;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Webhook request handling: secret check, parsing and hand-off to the bot, without a database.
+ */
+@WebMvcTest(controllers = TelegramWebhookController.class, properties = {
+        "app.webhook.enabled=true",
+        "app.webhook.secret-token=" + TelegramWebhookControllerMvcTest.SECRET
+})
+@Import(AppProperties.class)
+class TelegramWebhookControllerMvcTest {
+
+    static final String SECRET = "s3cret";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private TestDriveBot bot;
+
+    @Test
+    void updateIsHandedToTheBot() throws Exception {
+        // unknown fields (newer Bot API versions) must not break ingestion
+        String body = """
+                {"update_id":7,"brand_new_field":{"x":1},"message":{"message_id":3,"date":0,
+                 "chat":{"id":42,"type":"private"},"from":{"id":42,"is_bot":false,"first_name":"T"},
+                 "text":"/start"}}""";
+
+        mvc.perform(post(TelegramWebhookController.PATH)
+                        .header(TelegramWebhookController.SECRET_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bot).onUpdateReceived(update.capture());
+        assertEquals(7, update.getValue().getUpdateId());
+        assertEquals(42L, update.getValue().getMessage().getChatId());
+        assertEquals("/start", update.getValue().getMessage().getText());
+    }
+
+    @Test
+    void missingOrWrongSecretIsRejected() throws Exception {
+        mvc.perform(post(TelegramWebhookController.PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"update_id\":1}"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post(TelegramWebhookController.PATH)
+                        .header(TelegramWebhookController.SECRET_HEADER, "wrong")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"update_id\":1}"))
+                .andExpect(status().isUnauthorized());
+
+        verify(bot, never()).onUpdateReceived(any());
+    }
+
+    @Test
+    void malformedPayloadIsBadRequest() throws Exception {
+        mvc.perform(post(TelegramWebhookController.PATH)
+                        .header(TelegramWebhookController.SECRET_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"update_id\":"))
+                .andExpect(status().isBadRequest());
+
+        verify(bot, never()).onUpdateReceived(any());
+    }
+}
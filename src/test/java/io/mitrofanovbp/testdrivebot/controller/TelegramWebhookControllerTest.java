@@ -0,0 +1,138 @@
+package io.mitrofanovbp.testdrivebot.controller;
+
+import io.mitrofanovbp.testdrivebot.telegram.stub.TelegramApiStubController;
+import io.mitrofanovbp.testdrivebot.telegram.stub.TelegramApiStubController.RecordedCall;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Webhook ingestion end to end: an update posted to the {@code telegram-stub} Bot API is delivered to
+ * {@link TelegramWebhookController} over HTTP with the secret header, handled by the bot, and the reply
+ * comes back to the stub as a sendMessage call. Skipped when Docker is not available; request validation
+ * is covered without a database by {@link TelegramWebhookControllerMvcTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@ActiveProfiles("telegram-stub")
+class TelegramWebhookControllerTest {
+
+    private static final String SECRET = "e2e-secret";
+    private static final long CHAT_ID = 4242;
+
+    private static final int PORT = freePort();
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private TestRestTemplate http;
+
+    @Autowired
+    private TelegramApiStubController stub;
+
+    @BeforeAll
+    static void startDatabase() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        String base = "http://localhost:" + PORT;
+        registry.add("server.port", () -> PORT);
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl());
+        registry.add("spring.datasource.username", () -> postgres.getUsername());
+        registry.add("spring.datasource.password", () -> postgres.getPassword());
+        registry.add("app.telegram-bot-token", () -> "e2e:token");
+        registry.add("app.telegram-bot-username", () -> "e2e_bot");
+        registry.add("app.telegram-api-url", () -> base + "/telegram-stub/");
+        registry.add("app.webhook.enabled", () -> true);
+        registry.add("app.webhook.url", () -> base + TelegramWebhookController.PATH);
+        registry.add("app.webhook.secret-token", () -> SECRET);
+        registry.add("app.reminders.enabled", () -> false);
+        registry.add("app.archive.enabled", () -> false);
+    }
+
+    @BeforeEach
+    void clearCalls() {
+        stub.clear();
+    }
+
+    @Test
+    void startCommandIsAnsweredThroughTheWebhook() {
+        ResponseEntity<String> delivered = http.postForEntity("/telegram-stub/updates",
+                json(startUpdate(100)), String.class);
+        assertEquals(HttpStatus.OK, delivered.getStatusCode());
+
+        RecordedCall reply = awaitSendMessage();
+        assertFalse(reply.getParams().path("text").asText().isBlank());
+    }
+
+    /* ===================== helpers ===================== */
+
+    private RecordedCall awaitSendMessage() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> !sendMessages().isEmpty());
+        return sendMessages().get(0);
+    }
+
+    private List<RecordedCall> sendMessages() {
+        return stub.calls().stream()
+                .filter(c -> c.getMethod().equals("sendMessage"))
+                .filter(c -> c.getParams().path("chat_id").asText().equals(String.valueOf(CHAT_ID)))
+                .toList();
+    }
+
+    private static String startUpdate(int updateId) {
+        return """
+                {"update_id":%d,"message":{"message_id":1,"date":0,
+                 "chat":{"id":%d,"type":"private"},
+                 "from":{"id":%d,"is_bot":false,"first_name":"Test"},
+                 "text":"/start"}}""".formatted(updateId, CHAT_ID, CHAT_ID);
+    }
+
+    private static HttpEntity<String> json(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
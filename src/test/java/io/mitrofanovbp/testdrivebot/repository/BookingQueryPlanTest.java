@@ -0,0 +1,332 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mitrofanovbp.testdrivebot.dto.BookingFilter;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Query plan regression tests: migrates a PostgreSQL container with Flyway, loads a realistic volume
+ * of bookings, calls the repository methods and asserts that the SQL Hibernate generated for them
+ * (captured with a {@link StatementInspector}) is served by indexes.
+ * <p>
+ * Plans are taken with {@code plan_cache_mode = force_generic_plan}, as a server-side prepared
+ * statement reused by the JDBC driver would run them. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookingQueryPlanTest.SqlCapture.class)
+class BookingQueryPlanTest {
+
+    private static final int USERS = 20_000;
+    private static final int BOOKINGS = 200_000;
+    private static final int ARCHIVED = 100_000;
+
+    private static final int PAGE = 51;
+    private static final long USER_ID = 42;
+    private static final OffsetDateTime DAY = OffsetDateTime.parse("2024-06-01T00:00Z");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static PostgreSQLContainer<?> postgres;
+    private static Connection connection;
+    private static long carId;
+
+    @Autowired
+    private BookingRepository bookings;
+
+    @Autowired
+    private SqlCapture sql;
+
+    @BeforeAll
+    static void startDatabase() throws SQLException {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        seed();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl());
+        registry.add("spring.datasource.username", () -> postgres.getUsername());
+        registry.add("spring.datasource.password", () -> postgres.getPassword());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    private static void seed() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("INSERT INTO users (telegram_id, name) " +
+                    "SELECT 100000 + g, 'user ' || g FROM generate_series(1, " + USERS + ") g");
+            st.execute("INSERT INTO bookings (user_id, car_id, datetime, status) " +
+                    "SELECT (g % " + USERS + ") + 1, (ARRAY(SELECT id FROM cars ORDER BY id))[g % 10 + 1], " +
+                    "timestamptz '2024-01-01 00:00+00' + (g / 10) * interval '1 hour', " +
+                    "CASE WHEN g % 5 = 0 THEN 'CANCELED' ELSE 'CONFIRMED' END " +
+                    "FROM generate_series(0, " + (BOOKINGS - 1) + ") g");
+            st.execute("INSERT INTO bookings_history (id, user_id, car_id, datetime, status) " +
+                    "SELECT 10000000 + g, (g % " + USERS + ") + 1, (ARRAY(SELECT id FROM cars ORDER BY id))[g % 10 + 1], " +
+                    "timestamptz '2021-01-01 00:00+00' + (g / 10) * interval '1 hour', 'CONFIRMED' " +
+                    "FROM generate_series(0, " + (ARCHIVED - 1) + ") g");
+            st.execute("ANALYZE");
+            try (ResultSet rs = st.executeQuery("SELECT min(id) FROM cars")) {
+                rs.next();
+                carId = rs.getLong(1);
+            }
+        }
+    }
+
+    /* ===================== bot queries ===================== */
+
+    @Test
+    void activeBookingsOfUserUseUserIndex() throws Exception {
+        String q = single(() -> bookings.findDtosByUserIdAndStatus(USER_ID, BookingStatus.CONFIRMED));
+        JsonNode plan = explain(q, USER_ID, BookingStatus.CONFIRMED);
+        assertIndexed(plan, "bookings");
+        assertUsesIndex(plan, "idx_bookings_user_datetime");
+    }
+
+    @Test
+    void carSlotsOfDayUseIndex() throws Exception {
+        String q = single(() -> bookings.findConfirmedSlotsByCarIdBetween(carId, DAY, DAY.plusDays(1)));
+        JsonNode plan = explain(q, carId, DAY, DAY.plusDays(1));
+        assertIndexed(plan, "bookings");
+    }
+
+    @Test
+    void slotsOfAllCarsInRangeUseIndex() throws Exception {
+        String q = single(() -> bookings.findSlotsByStatusBetween(BookingStatus.CONFIRMED, DAY, DAY.plusDays(7)));
+        JsonNode plan = explain(q, BookingStatus.CONFIRMED, DAY, DAY.plusDays(7));
+        assertIndexed(plan, "bookings");
+    }
+
+    @Test
+    void reminderWindowUsesIndex() throws Exception {
+        String q = single(() -> bookings.findRemindersByStatusBetween(BookingStatus.CONFIRMED, DAY, DAY.plusDays(1)));
+        JsonNode plan = explain(q, BookingStatus.CONFIRMED, DAY, DAY.plusDays(1));
+        assertIndexed(plan, "bookings");
+    }
+
+    /* ===================== admin listings ===================== */
+
+    @Test
+    void adminFirstPageReadsIndexesInOrder() throws Exception {
+        List<String> qs = capture(() -> bookings.findAdminPage(null, null, null, PAGE));
+        assertEquals(2, qs.size(), () -> "expected live and archive queries: " + qs);
+
+        JsonNode live = explain(qs.get(0), PAGE);
+        assertIndexed(live, "bookings");
+        assertUsesIndex(live, "idx_bookings_datetime_id");
+        assertNoSort(live);
+
+        JsonNode archived = explain(qs.get(1), PAGE);
+        assertIndexed(archived, "bookings_history");
+        assertUsesIndex(archived, "idx_bookings_history_datetime_id");
+        assertNoSort(archived);
+    }
+
+    @Test
+    void adminPageFilteredByUserReadsIndexInOrder() throws Exception {
+        OffsetDateTime afterDt = OffsetDateTime.parse("2025-01-01T00:00Z");
+        long afterId = 1_000_000;
+        List<String> qs = capture(() -> bookings.findAdminPage(
+                new BookingFilter(null, USER_ID, null, null, null), afterDt, afterId, PAGE));
+        assertEquals(2, qs.size(), () -> "expected live and archive queries: " + qs);
+
+        JsonNode live = explain(qs.get(0), USER_ID, afterDt, afterDt, afterId, PAGE);
+        assertIndexed(live, "bookings");
+        assertUsesIndex(live, "idx_bookings_user_datetime");
+        assertNoSort(live);
+
+        JsonNode archived = explain(qs.get(1), USER_ID, afterDt, afterDt, afterId, PAGE);
+        assertIndexed(archived, "bookings_history");
+        assertUsesIndex(archived, "idx_bookings_history_user_datetime");
+        assertNoSort(archived);
+    }
+
+    @Test
+    void adminPageFilteredByCarReadsIndexInOrder() throws Exception {
+        OffsetDateTime afterDt = OffsetDateTime.parse("2025-01-01T00:00Z");
+        long afterId = 1_000_000;
+        List<String> qs = capture(() -> bookings.findAdminPage(
+                new BookingFilter(carId, null, null, null, null), afterDt, afterId, PAGE));
+        assertEquals(2, qs.size(), () -> "expected live and archive queries: " + qs);
+
+        JsonNode live = explain(qs.get(0), carId, afterDt, afterDt, afterId, PAGE);
+        assertIndexed(live, "bookings");
+        assertUsesIndex(live, "idx_bookings_car_datetime");
+        assertNoSort(live);
+
+        JsonNode archived = explain(qs.get(1), carId, afterDt, afterDt, afterId, PAGE);
+        assertIndexed(archived, "bookings_history");
+        assertUsesIndex(archived, "idx_bookings_history_car_datetime");
+        assertNoSort(archived);
+    }
+
+    @Test
+    void archiverChunkUsesIndexes() throws Exception {
+        JsonNode plan = explain(BookingArchiveRepository.MOVE_BATCH, OffsetDateTime.parse("2024-02-01T00:00Z"), 1000);
+        assertIndexed(plan, "bookings");
+        // oldest first: a backward scan of (datetime desc, id desc)
+        assertUsesIndex(plan, "idx_bookings_datetime_id");
+        assertNoSort(plan);
+    }
+
+    /* ===================== SQL capture ===================== */
+
+    /**
+     * Records every SQL statement Hibernate prepares.
+     */
+    @TestConfiguration
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+    }
+
+    /**
+     * Statements prepared while running the call, in order.
+     */
+    private List<String> capture(Runnable call) {
+        sql.statements.clear();
+        call.run();
+        return List.copyOf(sql.statements);
+    }
+
+    private String single(Runnable call) {
+        List<String> qs = capture(call);
+        assertEquals(1, qs.size(), () -> "expected one statement: " + qs);
+        return qs.get(0);
+    }
+
+    /* ===================== helpers ===================== */
+
+    /**
+     * EXPLAIN of the statement prepared with its JDBC placeholders as parameters and executed with
+     * the given arguments, in placeholder order.
+     */
+    private static JsonNode explain(String sql, Object... args) throws Exception {
+        StringBuilder prepared = new StringBuilder();
+        int n = 0;
+        for (char ch : sql.toCharArray()) {
+            if (ch == '?') {
+                prepared.append('$').append(++n);
+            } else {
+                prepared.append(ch);
+            }
+        }
+        assertEquals(args.length, n, () -> "placeholder count differs from arguments: " + sql);
+
+        List<String> literals = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            literals.add(arg instanceof Number ? arg.toString() : "'" + arg + "'");
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET plan_cache_mode = force_generic_plan");
+            st.execute("PREPARE q AS " + prepared);
+            String execute = "EXECUTE q" + (literals.isEmpty() ? "" : "(" + String.join(", ", literals) + ")");
+            try (ResultSet rs = st.executeQuery("EXPLAIN (FORMAT JSON) " + execute)) {
+                rs.next();
+                return JSON.readTree(rs.getString(1)).get(0).get("Plan");
+            } finally {
+                st.execute("DEALLOCATE q");
+                st.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+    private static List<JsonNode> nodes(JsonNode plan) {
+        List<JsonNode> out = new ArrayList<>();
+        collect(plan, out);
+        return out;
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> out) {
+        out.add(node);
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collect(child, out));
+        }
+    }
+
+    /**
+     * The table is read only through indexes, never sequentially.
+     */
+    private static void assertIndexed(JsonNode plan, String table) {
+        List<JsonNode> scans = nodes(plan).stream()
+                .filter(n -> table.equals(n.path("Relation Name").asText()))
+                .filter(n -> n.path("Node Type").asText().endsWith("Scan"))
+                .toList();
+        assertFalse(scans.isEmpty(), () -> table + " is not read: " + plan.toPrettyString());
+        for (JsonNode scan : scans) {
+            String type = scan.path("Node Type").asText();
+            assertTrue(type.equals("Index Scan") || type.equals("Index Only Scan") || type.equals("Bitmap Heap Scan"),
+                    () -> table + " read by " + type + ": " + plan.toPrettyString());
+        }
+    }
+
+    private static void assertUsesIndex(JsonNode plan, String index) {
+        assertTrue(nodes(plan).stream().anyMatch(n -> index.equals(n.path("Index Name").asText())),
+                () -> index + " not used: " + plan.toPrettyString());
+    }
+
+    private static void assertNoSort(JsonNode plan) {
+        assertTrue(nodes(plan).stream().noneMatch(n -> n.path("Node Type").asText().contains("Sort")),
+                () -> "unexpected sort: " + plan.toPrettyString());
+    }
+}
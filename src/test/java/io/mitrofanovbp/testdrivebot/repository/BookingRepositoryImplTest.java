@@ -0,0 +1,93 @@
+package io.mitrofanovbp.testdrivebot.repository;
+
+import io.mitrofanovbp.testdrivebot.dto.BookingAdminDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Merge of the live and archived admin listings in {@link BookingRepositoryImpl}.
+ */
+class BookingRepositoryImplTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 8, 16, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void mergesByDatetimeDescThenIdDesc() {
+        List<BookingAdminDto> live = List.of(row(7, 5), row(3, 5), row(9, 2));
+        List<BookingAdminDto> archived = List.of(row(5, 5), row(4, 3), row(1, 0));
+
+        assertEquals(List.of(7L, 5L, 3L, 4L, 9L, 1L), ids(drain(BookingRepositoryImpl.merge(live.iterator(), archived.iterator()))));
+    }
+
+    @Test
+    void mergeWithOneSideEmpty() {
+        List<BookingAdminDto> rows = List.of(row(2, 4), row(1, 3));
+
+        assertEquals(List.of(2L, 1L), ids(drain(BookingRepositoryImpl.merge(rows.iterator(), List.<BookingAdminDto>of().iterator()))));
+        assertEquals(List.of(2L, 1L), ids(drain(BookingRepositoryImpl.merge(List.<BookingAdminDto>of().iterator(), rows.iterator()))));
+
+        Iterator<BookingAdminDto> none = BookingRepositoryImpl.merge(List.<BookingAdminDto>of().iterator(), List.<BookingAdminDto>of().iterator());
+        assertFalse(none.hasNext());
+        assertThrows(NoSuchElementException.class, none::next);
+    }
+
+    @Test
+    void rowReadFromBothTablesIsEmittedOnce() {
+        // booking 4 was archived between the live and the archive query
+        List<BookingAdminDto> live = List.of(row(6, 6), row(4, 4), row(2, 2));
+        List<BookingAdminDto> archived = List.of(row(5, 5), row(4, 4), row(1, 1));
+
+        assertEquals(List.of(6L, 5L, 4L, 2L, 1L), ids(drain(BookingRepositoryImpl.merge(live.iterator(), archived.iterator()))));
+    }
+
+    @Test
+    void pageIsCutAtLimit() {
+        List<BookingAdminDto> live = List.of(row(8, 8), row(6, 6), row(4, 4));
+        List<BookingAdminDto> archived = List.of(row(7, 7), row(5, 5), row(3, 3));
+
+        assertEquals(List.of(8L, 7L, 6L, 5L), ids(BookingRepositoryImpl.mergePage(live, archived, 4)));
+        assertEquals(List.of(8L, 7L, 6L, 5L, 4L, 3L), ids(BookingRepositoryImpl.mergePage(live, archived, 10)));
+    }
+
+    @Test
+    void pageWithoutArchivedRowsIsTheLivePage() {
+        List<BookingAdminDto> live = List.of(row(2, 2), row(1, 1));
+
+        assertSame(live, BookingRepositoryImpl.mergePage(live, List.of(), 2));
+    }
+
+    @Test
+    void pageDropsDuplicateBeforeCounting() {
+        List<BookingAdminDto> live = List.of(row(3, 3), row(2, 2));
+        List<BookingAdminDto> archived = List.of(row(2, 2), row(1, 1));
+
+        assertEquals(List.of(3L, 2L, 1L), ids(BookingRepositoryImpl.mergePage(live, archived, 3)));
+    }
+
+    /* ===================== helpers ===================== */
+
+    private static BookingAdminDto row(long id, int hour) {
+        return new BookingAdminDto(id, 1L, 100L, "user", "user", 1L, "car", T0.plusHours(hour), "CONFIRMED");
+    }
+
+    private static List<BookingAdminDto> drain(Iterator<BookingAdminDto> it) {
+        List<BookingAdminDto> out = new ArrayList<>();
+        it.forEachRemaining(out::add);
+        return out;
+    }
+
+    private static List<Long> ids(List<BookingAdminDto> rows) {
+        return rows.stream().map(BookingAdminDto::getId).toList();
+    }
+}
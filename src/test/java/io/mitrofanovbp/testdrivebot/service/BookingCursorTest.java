@@ -0,0 +1,68 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.mitrofanovbp.testdrivebot.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keyset cursor of the admin listing ({@link BookingService#encodeCursor} / {@link BookingService#decodeCursor}).
+ */
+class BookingCursorTest {
+
+    @Test
+    void roundTripsPosition() {
+        OffsetDateTime dt = OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC);
+
+        String[] pos = BookingService.decodeCursor(BookingService.encodeCursor(dt, 42L));
+
+        assertEquals(dt, OffsetDateTime.parse(pos[0]));
+        assertEquals(42L, Long.parseLong(pos[1]));
+    }
+
+    @Test
+    void normalizesToUtc() {
+        OffsetDateTime local = OffsetDateTime.of(2025, 8, 16, 16, 0, 0, 0, ZoneOffset.ofHours(3));
+
+        String[] pos = BookingService.decodeCursor(BookingService.encodeCursor(local, 1L));
+
+        assertEquals(OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC), OffsetDateTime.parse(pos[0]));
+    }
+
+    @Test
+    void keepsSubSecondPrecisionAndLargeIds() {
+        OffsetDateTime dt = OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+        String[] pos = BookingService.decodeCursor(BookingService.encodeCursor(dt, Long.MAX_VALUE));
+
+        assertEquals(dt, OffsetDateTime.parse(pos[0]));
+        assertEquals(Long.MAX_VALUE, Long.parseLong(pos[1]));
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = BookingService.encodeCursor(OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC), 9_999L);
+
+        assertFalse(cursor.matches(".*[+/=].*"), cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(BadRequestException.class, () -> BookingService.decodeCursor("not base64!"));
+        assertThrows(BadRequestException.class, () -> BookingService.decodeCursor(encode("2025-08-16T13:00Z")));
+        assertThrows(BadRequestException.class, () -> BookingService.decodeCursor(encode("2025-08-16T13:00Z|x")));
+        assertThrows(BadRequestException.class, () -> BookingService.decodeCursor(encode("yesterday|5")));
+        assertThrows(BadRequestException.class, () -> BookingService.decodeCursor(encode("2025-08-16T13:00Z|5|6")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,190 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportResultDto;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportRow;
+import io.mitrofanovbp.testdrivebot.dto.BookingImportRowResult;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.repository.BookingBatchRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingBatchRepository.NewBooking;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk path of {@link BookingImportService}: per-row outcomes, what reaches the JDBC batches,
+ * and index updates on commit. The batch repository is a mock.
+ */
+class BookingImportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now(ZoneOffset.UTC).plusDays(5);
+
+    private final BookingBatchRepository batch = mock(BookingBatchRepository.class);
+    private final ReminderScheduler reminders = mock(ReminderScheduler.class);
+    private final SlotOccupancyIndex occupancy = new SlotOccupancyIndex(mock(BookingRepository.class));
+
+    private BookingImportService service;
+
+    @BeforeEach
+    void setUp() {
+        CarService cars = mock(CarService.class);
+        when(cars.catalog()).thenReturn(new CarCatalog(1, List.of(
+                new CarDto(1L, "Sedan", ""), new CarDto(2L, "Coupe", ""))));
+        when(batch.lockCars(anyCollection())).thenReturn(Set.of(1L, 2L));
+        // user id = telegram id + 1000
+        when(batch.ensureUsers(anyCollection())).thenAnswer(inv -> {
+            Map<Long, Long> ids = new HashMap<>();
+            for (Long telegramId : inv.<Collection<Long>>getArgument(0)) {
+                ids.put(telegramId, telegramId + 1000);
+            }
+            return ids;
+        });
+        service = new BookingImportService(batch, cars, occupancy, new ActiveBookingsCache(new AppProperties()),
+                reminders, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void everyRowGetsAnOutcomeAndOnlyValidRowsAreBatched() {
+        List<BookingImportRow> rows = Arrays.asList(
+                row(1L, 1L, at(DAY, 12)),
+                row(null, 1L, at(DAY, 12)),
+                row(2L, 99L, at(DAY, 12)),
+                row(2L, 1L, at(LocalDate.now(ZoneOffset.UTC).minusDays(1), 12)),
+                row(2L, 1L, at(DAY, 12).plusMinutes(30)),
+                row(3L, 1L, at(DAY, 13)),
+                row(1L, 2L, at(DAY, 12)),
+                null);
+        when(batch.insertConfirmedIfFree(anyList())).thenReturn(new int[]{1, 0, 1});
+
+        BookingImportResultDto result = service.importBookings(rows);
+
+        assertEquals(List.of(BookingImportService.CREATED, BookingImportService.INVALID,
+                        BookingImportService.CAR_NOT_FOUND, BookingImportService.INVALID, BookingImportService.INVALID,
+                        BookingImportService.CONFLICT, BookingImportService.CREATED, BookingImportService.INVALID),
+                statuses(result));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), result.getRows().stream().map(BookingImportRowResult::getIndex).toList());
+        assertEquals(8, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getConflicts());
+        assertEquals(5, result.getRejected());
+
+        assertEquals(List.of(
+                new NewBooking(1001, 1, at(DAY, 12)),
+                new NewBooking(1003, 1, at(DAY, 13)),
+                new NewBooking(1001, 2, at(DAY, 12))), inserted());
+        verify(batch).lockCars(Set.of(1L, 2L));
+        verify(batch).ensureUsers(Set.of(1L, 3L));
+    }
+
+    @Test
+    void carDeletedAfterTheCatalogSnapshotIsReportedPerRow() {
+        when(batch.lockCars(anyCollection())).thenReturn(Set.of(1L));
+        when(batch.insertConfirmedIfFree(anyList())).thenReturn(new int[]{1});
+
+        BookingImportResultDto result = service.importBookings(List.of(
+                row(1L, 2L, at(DAY, 10)),
+                row(1L, 1L, at(DAY, 10))));
+
+        assertEquals(List.of(BookingImportService.CAR_NOT_FOUND, BookingImportService.CREATED), statuses(result));
+        assertEquals(List.of(new NewBooking(1001, 1, at(DAY, 10))), inserted());
+    }
+
+    @Test
+    void importWithoutValidRowsDoesNotTouchTheDatabase() {
+        BookingImportResultDto result = service.importBookings(List.of(row(1L, 99L, at(DAY, 10))));
+
+        assertEquals(List.of(BookingImportService.CAR_NOT_FOUND), statuses(result));
+        verifyNoInteractions(batch);
+    }
+
+    @Test
+    void importWhoseCarsAreAllGoneWritesNothing() {
+        when(batch.lockCars(anyCollection())).thenReturn(Set.of());
+
+        BookingImportResultDto result = service.importBookings(List.of(row(1L, 1L, at(DAY, 10))));
+
+        assertEquals(List.of(BookingImportService.CAR_NOT_FOUND), statuses(result));
+        verify(batch, never()).ensureUsers(any());
+        verify(batch, never()).insertConfirmedIfFree(any());
+    }
+
+    @Test
+    void createdBookingsReachTheIndexOnlyOnCommit() {
+        when(batch.insertConfirmedIfFree(anyList())).thenReturn(new int[]{1, 0});
+        List<BookingImportRow> rows = List.of(row(1L, 1L, at(DAY, 10)), row(2L, 1L, at(DAY, 11)));
+
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> service.importBookings(rows));
+        rolledBack.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(0, occupancy.occupiedMask(1L, DAY));
+        verify(reminders, never()).refreshAsync();
+
+        List<TransactionSynchronization> committed = inTransaction(() -> service.importBookings(rows));
+        committed.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1 << 1, occupancy.occupiedMask(1L, DAY), "only the created row is indexed");
+        verify(reminders).refreshAsync();
+    }
+
+    /* ===================== helpers ===================== */
+
+    private List<NewBooking> inserted() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewBooking>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batch).insertConfirmedIfFree(captor.capture());
+        return captor.getValue();
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            return new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static List<String> statuses(BookingImportResultDto result) {
+        return result.getRows().stream().map(BookingImportRowResult::getStatus).toList();
+    }
+
+    private static BookingImportRow row(Long telegramId, Long carId, OffsetDateTime datetime) {
+        return new BookingImportRow(telegramId, carId, datetime);
+    }
+
+    private static OffsetDateTime at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atOffset(ZoneOffset.UTC);
+    }
+}
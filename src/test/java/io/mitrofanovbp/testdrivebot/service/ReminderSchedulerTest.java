@@ -0,0 +1,140 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.service.ReminderScheduler.Reminder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ReminderScheduler} ticks driven by a manual clock; the database only confirms ids.
+ */
+class ReminderSchedulerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 8, 16, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ManualClock clock = new ManualClock(NOW.toInstant());
+    private final BookingRepository bookings = mock(BookingRepository.class);
+    private final List<Reminder> sent = new ArrayList<>();
+
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(bookings.findRemindersByStatusBetween(eq(BookingStatus.CONFIRMED), any(), any())).thenReturn(List.of());
+        when(bookings.findIdsByIdInAndStatus(anyCollection(), eq(BookingStatus.CONFIRMED)))
+                .thenAnswer(inv -> new ArrayList<>(inv.<Collection<Long>>getArgument(0)));
+
+        scheduler = new ReminderScheduler(bookings, new AppProperties(), new SimpleMeterRegistry(), clock);
+        scheduler.attach(sent::addAll);
+        scheduler.refresh();
+    }
+
+    @Test
+    void dueReminderIsSentOnce() {
+        scheduler.onBooked(1L, 100L, 7L, NOW.plusHours(3));
+
+        clock.set(NOW.plusHours(2).minusMinutes(1));
+        scheduler.tick();
+        assertTrue(sent.isEmpty());
+
+        clock.set(NOW.plusHours(2));
+        scheduler.tick();
+        assertEquals(List.of(1L), ids(sent));
+        assertEquals(0, scheduler.getPending());
+
+        clock.set(NOW.plusHours(2).plusMinutes(1));
+        scheduler.tick();
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void cancelledReminderIsSkipped() {
+        scheduler.onBooked(1L, 100L, 7L, NOW.plusHours(3));
+        scheduler.onBooked(2L, 200L, 7L, NOW.plusHours(3));
+        scheduler.onCanceled(1L);
+        assertEquals(1, scheduler.getPending());
+
+        clock.set(NOW.plusHours(2));
+        scheduler.tick();
+        assertEquals(List.of(2L), ids(sent));
+    }
+
+    @Test
+    void rebookedSlotDoesNotResurrectCancelledEntry() {
+        // the cancelled entry stays in the wheel; only the one in pending may fire
+        scheduler.onBooked(1L, 100L, 7L, NOW.plusHours(3));
+        scheduler.onCanceled(1L);
+        scheduler.onBooked(1L, 100L, 7L, NOW.plusHours(5));
+
+        clock.set(NOW.plusHours(2));
+        scheduler.tick();
+        assertTrue(sent.isEmpty());
+
+        clock.set(NOW.plusHours(4));
+        scheduler.tick();
+        assertEquals(1, sent.size());
+        assertEquals(NOW.plusHours(5), sent.get(0).slotUtc());
+    }
+
+    @Test
+    void reminderWhoseSlotPassedDuringPauseIsDropped() {
+        scheduler.onBooked(1L, 100L, 7L, NOW.plusHours(3));
+
+        clock.set(NOW.plusHours(3));
+        scheduler.tick();
+        assertTrue(sent.isEmpty());
+        assertEquals(0, scheduler.getPending());
+    }
+
+    private static List<Long> ids(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::bookingId).toList();
+    }
+
+    private static final class ManualClock extends Clock {
+        private Instant now;
+
+        ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(OffsetDateTime t) {
+            now = t.toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
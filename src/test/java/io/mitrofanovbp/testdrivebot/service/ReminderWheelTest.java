@@ -0,0 +1,139 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.mitrofanovbp.testdrivebot.service.ReminderScheduler.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ReminderWheel} driven with explicit clock values.
+ */
+class ReminderWheelTest {
+
+    private static final long TICK = 60_000;
+    private static final long LEAD = 3_600_000;
+
+    /**
+     * 16 buckets: horizon of 15 ticks.
+     */
+    private static final long HORIZON = 15 * TICK;
+
+    private static final long START = 29_000_000;
+
+    private final ReminderWheel wheel = new ReminderWheel(HORIZON, TICK, LEAD, millis(START));
+
+    @Test
+    void reminderFiresOnItsTick() {
+        Reminder r = dueAt(1, START + 5);
+        wheel.add(r);
+
+        assertTrue(wheel.advance(millis(START + 4)).isEmpty());
+        assertEquals(List.of(r), wheel.advance(millis(START + 5)));
+        assertTrue(wheel.advance(millis(START + 6)).isEmpty());
+    }
+
+    @Test
+    void reminderDueBetweenTicksFiresOnTheNextOne() {
+        Reminder r = new Reminder(1, 1, 1, (millis(START + 3) + TICK / 2 + LEAD) / 1000);
+        wheel.add(r);
+
+        assertTrue(wheel.advance(millis(START + 3)).isEmpty());
+        assertEquals(List.of(r), wheel.advance(millis(START + 4)));
+    }
+
+    @Test
+    void reminderBeyondOneRevolutionWaitsForItsTick() {
+        // 40 ticks ahead on a 16-bucket ring: its bucket comes round at +8 and +24 first
+        Reminder far = dueAt(1, START + 40);
+        Reminder near = dueAt(2, START + 8);
+        wheel.add(far);
+        wheel.add(near);
+
+        List<Reminder> fired = new ArrayList<>();
+        for (long tick = START + 1; tick < START + 40; tick++) {
+            List<Reminder> due = wheel.advance(millis(tick));
+            if (tick == START + 8) {
+                assertEquals(List.of(near), due);
+            } else {
+                assertTrue(due.isEmpty(), "fired at +" + (tick - START));
+            }
+            fired.addAll(due);
+        }
+        assertEquals(List.of(near), fired);
+        assertEquals(List.of(far), wheel.advance(millis(START + 40)));
+    }
+
+    @Test
+    void longPauseCatchesUpEveryBucketOnce() {
+        List<Reminder> expected = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            Reminder r = dueAt(i, START + i * 7);
+            wheel.add(r);
+            if (i * 7 <= 1_000) {
+                expected.add(r);
+            }
+        }
+        Reminder later = dueAt(100, START + 1_010);
+        wheel.add(later);
+
+        // 1000 ticks without advancing: only target - mask .. target is scanned
+        List<Reminder> due = wheel.advance(millis(START + 1_000));
+        assertEquals(expected.size(), due.size());
+        assertTrue(due.containsAll(expected));
+
+        assertTrue(wheel.advance(millis(START + 1_009)).isEmpty());
+        assertEquals(List.of(later), wheel.advance(millis(START + 1_010)));
+    }
+
+    @Test
+    void pauseLongerThanWholeRingKeepsFutureReminders() {
+        Reminder beyond = dueAt(1, START + 50);
+        wheel.add(beyond);
+
+        // jumping to +45 scans buckets for +30..+45, including the one holding +50 (50 & 15 == 2 == 34 & 15)
+        assertTrue(wheel.advance(millis(START + 45)).isEmpty());
+        assertEquals(List.of(beyond), wheel.advance(millis(START + 50)));
+    }
+
+    @Test
+    void reminderAddedAtOrBeforeCurrentTickFiresOnTheNextTick() {
+        wheel.advance(millis(START + 10));
+        Reminder late = dueAt(1, START + 4);
+        Reminder now = dueAt(2, START + 10);
+        wheel.add(late);
+        wheel.add(now);
+
+        // the current tick has already been processed
+        assertTrue(wheel.advance(millis(START + 10)).isEmpty());
+        List<Reminder> due = wheel.advance(millis(START + 11));
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(late, now)));
+    }
+
+    @Test
+    void clockGoingBackwardsIsIgnored() {
+        Reminder r = dueAt(1, START + 3);
+        wheel.add(r);
+        wheel.advance(millis(START + 2));
+
+        assertTrue(wheel.advance(millis(START - 100)).isEmpty());
+        assertEquals(List.of(r), wheel.advance(millis(START + 3)));
+    }
+
+    /* ===================== helpers ===================== */
+
+    private static long millis(long tick) {
+        return tick * TICK;
+    }
+
+    /**
+     * Reminder whose due moment (slot minus lead) falls exactly on the given tick.
+     */
+    private static Reminder dueAt(long bookingId, long tick) {
+        return new Reminder(bookingId, bookingId, 1, (millis(tick) + LEAD) / 1000);
+    }
+}
@@ -0,0 +1,224 @@
+package io.mitrofanovbp.testdrivebot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mitrofanovbp.testdrivebot.config.AppProperties;
+import io.mitrofanovbp.testdrivebot.dto.CarDto;
+import io.mitrofanovbp.testdrivebot.model.Booking;
+import io.mitrofanovbp.testdrivebot.model.BookingStatus;
+import io.mitrofanovbp.testdrivebot.model.Car;
+import io.mitrofanovbp.testdrivebot.model.User;
+import io.mitrofanovbp.testdrivebot.repository.BookingRepository;
+import io.mitrofanovbp.testdrivebot.repository.BookingSlotView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link SlotOccupancyIndex}: warm-up from the bookings table, and BookingService writes applied only on commit.
+ * Transactions are simulated with {@link TransactionSynchronizationManager}; the database is a mock.
+ */
+class SlotOccupancyIndexTest {
+
+    private static final long CAR = 7;
+    private static final LocalDate DAY = LocalDate.now(ZoneOffset.UTC).plusDays(3);
+
+    private final BookingRepository bookings = mock(BookingRepository.class);
+    private final SlotOccupancyIndex index = new SlotOccupancyIndex(bookings);
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /* ===================== warm-up ===================== */
+
+    @Test
+    void warmUpMatchesConfirmedBookings() {
+        List<BookingSlotView> rows = List.of(
+                slot(CAR, DAY, 9), slot(CAR, DAY, 13), slot(CAR, DAY, 17),
+                slot(CAR, DAY.plusDays(1), 10),
+                slot(8L, DAY, 13),
+                // off the grid: ignored, as the availability queries ignore it
+                slot(CAR, DAY, 20), slot(CAR, DAY, 8));
+        when(bookings.findSlotsByStatusFrom(eq(BookingStatus.CONFIRMED), any())).thenReturn(rows);
+
+        index.warmUp();
+
+        assertTrue(index.isReady());
+        assertEquals(bits(0, 4, 8), index.occupiedMask(CAR, DAY));
+        assertEquals(bits(1), index.occupiedMask(CAR, DAY.plusDays(1)));
+        assertEquals(bits(4), index.occupiedMask(8L, DAY));
+        assertEquals(0, index.occupiedMask(CAR, DAY.plusDays(2)));
+        assertEquals(0, index.occupiedMask(99L, DAY));
+    }
+
+    @Test
+    void warmUpReplacesWhatWasThereBefore() {
+        index.markBooked(CAR, at(DAY, 11));
+        when(bookings.findSlotsByStatusFrom(eq(BookingStatus.CONFIRMED), any())).thenReturn(List.of(slot(CAR, DAY, 9)));
+
+        index.warmUp();
+
+        assertEquals(bits(0), index.occupiedMask(CAR, DAY));
+    }
+
+    @Test
+    void warmUpRetriesWhenABookingCommitsDuringTheSnapshot() {
+        // the first snapshot misses a booking that commits while it is read
+        List<BookingSlotView> before = List.of(slot(CAR, DAY, 9));
+        List<BookingSlotView> after = List.of(slot(CAR, DAY, 9), slot(CAR, DAY, 10));
+        when(bookings.findSlotsByStatusFrom(eq(BookingStatus.CONFIRMED), any()))
+                .thenAnswer(inv -> {
+                    index.markBooked(CAR, at(DAY, 10));
+                    return before;
+                })
+                .thenReturn(after);
+
+        index.warmUp();
+
+        verify(bookings, times(2)).findSlotsByStatusFrom(eq(BookingStatus.CONFIRMED), any());
+        assertTrue(index.isReady());
+        assertEquals(bits(0, 1), index.occupiedMask(CAR, DAY));
+    }
+
+    @Test
+    void warmUpGivesUpWhileWritesKeepRacing() {
+        when(bookings.findSlotsByStatusFrom(eq(BookingStatus.CONFIRMED), any())).thenAnswer(inv -> {
+            index.markFree(CAR, at(DAY, 9));
+            return List.of();
+        });
+
+        index.warmUp();
+
+        assertFalse(index.isReady(), "availability must fall back to the database");
+    }
+
+    /* ===================== after-commit application ===================== */
+
+    @Test
+    void bookingIsIndexedOnlyAfterCommit() {
+        BookingService service = bookingService();
+        when(bookings.insertConfirmedIfFree(1L, CAR, at(DAY, 12))).thenReturn(100L);
+
+        List<TransactionSynchronization> tx = inTransaction(() -> service.createBooking(user(), CAR, at(DAY, 12)));
+        assertEquals(0, index.occupiedMask(CAR, DAY), "not visible before commit");
+
+        commit(tx);
+        assertEquals(bits(3), index.occupiedMask(CAR, DAY));
+    }
+
+    @Test
+    void rolledBackBookingDoesNotOccupyTheSlot() {
+        BookingService service = bookingService();
+        when(bookings.insertConfirmedIfFree(1L, CAR, at(DAY, 12))).thenReturn(100L);
+
+        List<TransactionSynchronization> tx = inTransaction(() -> service.createBooking(user(), CAR, at(DAY, 12)));
+        rollback(tx);
+
+        assertEquals(0, index.occupiedMask(CAR, DAY));
+    }
+
+    @Test
+    void rolledBackCancellationKeepsTheSlotOccupied() {
+        BookingService service = bookingService();
+        index.markBooked(CAR, at(DAY, 15));
+        Car car = mock(Car.class);
+        when(car.getId()).thenReturn(CAR);
+        Booking booking = new Booking(user(), car, at(DAY, 15), BookingStatus.CONFIRMED);
+        when(bookings.findByIdAndUserId(100L, 1L)).thenReturn(Optional.of(booking));
+
+        List<TransactionSynchronization> tx = inTransaction(() -> service.cancelByUser(user(), 100L));
+        rollback(tx);
+        assertEquals(bits(6), index.occupiedMask(CAR, DAY));
+
+        booking.setStatus(BookingStatus.CONFIRMED);
+        tx = inTransaction(() -> service.cancelByUser(user(), 100L));
+        commit(tx);
+        assertEquals(0, index.occupiedMask(CAR, DAY));
+    }
+
+    /* ===================== helpers ===================== */
+
+    private BookingService bookingService() {
+        CarService cars = mock(CarService.class);
+        when(cars.get(CAR)).thenReturn(new CarDto(CAR, "Model", "Description"));
+        return new BookingService(bookings, cars, index, new ActiveBookingsCache(new AppProperties()),
+                mock(ReminderScheduler.class), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Runs the body with transaction synchronization active and returns what it registered.
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            return new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void commit(List<TransactionSynchronization> tx) {
+        tx.forEach(TransactionSynchronization::afterCommit);
+        tx.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void rollback(List<TransactionSynchronization> tx) {
+        tx.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private static User user() {
+        return new User(1L, 555L, "user", "User");
+    }
+
+    private static OffsetDateTime at(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atOffset(ZoneOffset.UTC);
+    }
+
+    private static BookingSlotView slot(Long carId, LocalDate day, int hour) {
+        OffsetDateTime datetime = at(day, hour);
+        return new BookingSlotView() {
+            @Override
+            public Long getCarId() {
+                return carId;
+            }
+
+            @Override
+            public OffsetDateTime getDatetime() {
+                return datetime;
+            }
+        };
+    }
+
+    /**
+     * Mask with the given grid indexes set (0 = 09:00 UTC).
+     */
+    private static int bits(int... indexes) {
+        int mask = 0;
+        for (int i : indexes) {
+            mask |= 1 << i;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,108 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import io.mitrofanovbp.testdrivebot.telegram.CallbackData.Action;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips of the {@link Callbacks} codec.
+ */
+class CallbacksTest {
+
+    /**
+     * Telegram's callback_data limit.
+     */
+    private static final int MAX_CALLBACK_BYTES = 64;
+
+    /**
+     * Varint length boundaries (1..9 bytes) plus the int and long limits.
+     */
+    private static final long[] VALUES = {
+            0, 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152,
+            Integer.MAX_VALUE, (long) Integer.MAX_VALUE + 1, (1L << 56) - 1, 1L << 56, Long.MAX_VALUE
+    };
+
+    @Test
+    void everyActionRoundTripsAtBoundaryValues() {
+        for (Action action : Action.values()) {
+            for (long id : VALUES) {
+                for (long arg : VALUES) {
+                    String data = Callbacks.encode(action, id, arg);
+                    CallbackData expected = new CallbackData(action, action.hasId() ? id : 0, action.hasArg() ? arg : 0);
+                    assertEquals(expected, Callbacks.decode(data), () -> action + " id=" + id + " arg=" + arg);
+                    assertFitsLimit(data);
+                }
+            }
+        }
+    }
+
+    @Test
+    void slotsAndDaysRoundTrip() {
+        OffsetDateTime[] slots = {
+                OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 8, 16, 9, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 8, 16, 17, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 12, 31, 23, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(9999, 12, 31, 23, 0, 0, 0, ZoneOffset.UTC)
+        };
+        for (OffsetDateTime slot : slots) {
+            for (long carId : new long[]{1, Long.MAX_VALUE}) {
+                CallbackData time = Callbacks.decode(Callbacks.time(carId, slot));
+                assertEquals(Action.TIME, time.action());
+                assertEquals(carId, time.carId());
+                assertEquals(slot, time.slotUtc());
+
+                String confirmData = Callbacks.confirm(carId, slot);
+                CallbackData confirm = Callbacks.decode(confirmData);
+                assertEquals(Action.CONFIRM, confirm.action());
+                assertEquals(carId, confirm.carId());
+                assertEquals(slot, confirm.slotUtc());
+                assertFitsLimit(confirmData);
+
+                LocalDate day = slot.toLocalDate();
+                assertEquals(day, Callbacks.decode(Callbacks.day(carId, day)).day());
+                assertEquals(day, Callbacks.decode(Callbacks.backToTimes(carId, day)).day());
+            }
+        }
+    }
+
+    @Test
+    void slotsWithOffsetAreStoredInUtc() {
+        OffsetDateTime local = OffsetDateTime.of(2025, 8, 16, 16, 0, 0, 0, ZoneOffset.ofHours(3));
+        CallbackData cd = Callbacks.decode(Callbacks.confirm(7, local));
+        assertEquals(OffsetDateTime.of(2025, 8, 16, 13, 0, 0, 0, ZoneOffset.UTC), cd.slotUtc());
+    }
+
+    @Test
+    void foreignPayloadsAreRejected() {
+        assertNull(Callbacks.decode(null));
+        assertNull(Callbacks.decode(""));
+        assertNull(Callbacks.decode("START"));
+        assertNull(Callbacks.decode("DAY|7|2025-08-16"));
+        assertNull(Callbacks.decode("CONFIRM|7|2025-08-16T13:00Z"));
+        // trailing garbage and truncation
+        assertNull(Callbacks.decode(Callbacks.car(7) + "A"));
+        String day = Callbacks.day(300, LocalDate.of(2025, 8, 16));
+        assertNull(Callbacks.decode(day.substring(0, day.length() - 2)));
+    }
+
+    @Test
+    void negativeValuesAreNotEncoded() {
+        assertThrows(IllegalArgumentException.class, () -> Callbacks.car(-1));
+        assertThrows(IllegalArgumentException.class, () -> Callbacks.day(1, LocalDate.of(1969, 12, 31)));
+    }
+
+    private static void assertFitsLimit(String data) {
+        int bytes = data.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(bytes <= MAX_CALLBACK_BYTES, () -> data + " is " + bytes + " bytes");
+    }
+}
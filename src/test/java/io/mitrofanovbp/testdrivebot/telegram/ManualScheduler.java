@@ -0,0 +1,172 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded scheduler driven by a virtual nanosecond clock: nothing runs until the test calls
+ * {@link #runDue()} or {@link #advance(long, TimeUnit)}, and tasks run in (due time, submission) order.
+ */
+final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private long now;
+    private long seq;
+    private boolean shutdown;
+
+    long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Runs every task due at the current time, including tasks they submit for now.
+     */
+    void runDue() {
+        advanceTo(now);
+    }
+
+    /**
+     * Moves the clock forward, running due tasks at their due time on the way.
+     */
+    void advance(long amount, TimeUnit unit) {
+        advanceTo(now + unit.toNanos(amount));
+    }
+
+    private void advanceTo(long target) {
+        while (!tasks.isEmpty() && tasks.peek().at <= target) {
+            Task task = tasks.poll();
+            now = Math.max(now, task.at);
+            if (!task.cancelled) {
+                task.run();
+            }
+        }
+        now = target;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitAt(now, command, 0);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return submitAt(now + Math.max(0, unit.toNanos(delay)), command, 0);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return submitAt(now + unit.toNanos(initialDelay), command, unit.toNanos(period));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return submitAt(now + unit.toNanos(initialDelay), command, unit.toNanos(delay));
+    }
+
+    private Task submitAt(long at, Runnable command, long period) {
+        Task task = new Task(at, seq++, command, period);
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        tasks.clear();
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return true;
+    }
+
+    private final class Task implements ScheduledFuture<Object>, Runnable {
+        final long at;
+        final long order;
+        final Runnable command;
+        final long period;
+        boolean cancelled;
+        boolean done;
+
+        Task(long at, long order, Runnable command, long period) {
+            this.at = at;
+            this.order = order;
+            this.command = command;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            command.run();
+            if (period > 0) {
+                submitAt(now + period, command, period);
+            } else {
+                done = true;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(at - now, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Task o = (Task) other;
+            return at != o.at ? Long.compare(at, o.at) : Long.compare(order, o.order);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return !done;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+}
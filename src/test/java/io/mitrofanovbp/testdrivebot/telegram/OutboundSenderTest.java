@@ -0,0 +1,267 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link OutboundSender} on a manual scheduler and clock; Bot API calls complete only when the test says so.
+ */
+class OutboundSenderTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final List<Call> calls = new ArrayList<>();
+
+    /**
+     * When set, calls succeed as soon as they are made.
+     */
+    private boolean autoComplete;
+
+    @Test
+    void laneSendsOneCallAtATimeInOrder() {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 0);
+
+        sender.send(1L, message(1, "a"));
+        sender.send(1L, message(1, "b"));
+        sender.send(1L, message(1, "c"));
+        scheduler.runDue();
+        assertEquals(List.of("a"), texts());
+
+        calls.get(0).succeed();
+        scheduler.runDue();
+        assertEquals(List.of("a", "b"), texts());
+
+        calls.get(1).succeed();
+        scheduler.runDue();
+        calls.get(2).succeed();
+        scheduler.runDue();
+        assertEquals(List.of("a", "b", "c"), texts());
+        assertEquals(0, sender.getQueueDepth());
+    }
+
+    @Test
+    void busyLaneDoesNotBlockOtherChats() {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 0);
+
+        sender.send(1L, message(1, "a1"));
+        sender.send(1L, message(1, "a2"));
+        sender.send(2L, message(2, "b1"));
+        scheduler.runDue();
+
+        assertEquals(List.of("a1", "b1"), texts());
+    }
+
+    @Test
+    void perChatBucketSpacesCallsAfterBurst() {
+        autoComplete = true;
+        OutboundSender sender = sender(1000, 1000, 1, 2, 0);
+
+        for (String text : List.of("a", "b", "c", "d")) {
+            sender.send(1L, message(1, text));
+        }
+        scheduler.runDue();
+        assertEquals(List.of("a", "b"), texts());
+
+        scheduler.advance(999, TimeUnit.MILLISECONDS);
+        assertEquals(2, calls.size());
+        scheduler.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("a", "b", "c"), texts());
+
+        scheduler.advance(1, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "c", "d"), texts());
+    }
+
+    @Test
+    void globalBucketLimitsAllChatsTogether() {
+        autoComplete = true;
+        OutboundSender sender = sender(2, 2, 1000, 1000, 0);
+
+        sender.send(1L, message(1, "a"));
+        sender.send(2L, message(2, "b"));
+        sender.send(3L, message(3, "c"));
+        sender.sendUnordered(message(4, "d"));
+        scheduler.runDue();
+        assertEquals(List.of("a", "b"), texts());
+
+        scheduler.advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(3, calls.size());
+        scheduler.advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(4, calls.size());
+    }
+
+    @Test
+    void rateLimitedCallIsRetriedOnceAfterRetryAfter() throws Exception {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 1);
+
+        CompletableFuture<Message> result = sender.send(1L, message(1, "a"));
+        sender.send(1L, message(1, "b"));
+        scheduler.runDue();
+        calls.get(0).fail(tooManyRequests(3));
+        scheduler.runDue();
+
+        scheduler.advance(2999, TimeUnit.MILLISECONDS);
+        assertEquals(1, calls.size(), "neither the retry nor the next call of the lane may go early");
+        scheduler.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("a", "a"), texts());
+
+        calls.get(1).succeed();
+        scheduler.runDue();
+        assertSame(calls.get(1).reply, result.get());
+        assertEquals(1, sender.getRetried());
+        assertEquals(List.of("a", "a", "b"), texts());
+    }
+
+    @Test
+    void secondRateLimitFailsTheCall() {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 1);
+
+        CompletableFuture<Message> result = sender.send(1L, message(1, "a"));
+        scheduler.runDue();
+        calls.get(0).fail(tooManyRequests(1));
+        scheduler.advance(1, TimeUnit.SECONDS);
+        calls.get(1).fail(tooManyRequests(1));
+        scheduler.advance(10, TimeUnit.SECONDS);
+
+        assertEquals(2, calls.size());
+        ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(TelegramApiRequestException.class, failure.getCause());
+        assertEquals(1, sender.getFailed());
+    }
+
+    @Test
+    void rejectedEditFallsBackToSend() throws Exception {
+        assertFallback(new TelegramApiRequestException("Bad Request: message to edit not found"));
+    }
+
+    @Test
+    void editFailingWithIoErrorFallsBackToSend() throws Exception {
+        assertFallback(new TelegramApiException("Unable to execute editMessageText method",
+                new IOException("Connection reset")));
+    }
+
+    private void assertFallback(Throwable editError) throws Exception {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 1);
+
+        CompletableFuture<Serializable> result = sender.editOrSend(1L, edit(1, "edited"), message(1, "fresh"));
+        scheduler.runDue();
+        calls.get(0).fail(editError);
+        scheduler.runDue();
+
+        assertEquals(List.of("edited", "fresh"), texts());
+        assertInstanceOf(SendMessage.class, calls.get(1).method);
+        calls.get(1).succeed();
+        scheduler.runDue();
+        assertSame(calls.get(1).reply, result.get());
+        assertEquals(1, sender.getFallbacks());
+        assertEquals(0, sender.getFailed());
+    }
+
+    @Test
+    void failedFallbackIsNotRetried() {
+        OutboundSender sender = sender(1000, 1000, 1000, 1000, 1);
+
+        CompletableFuture<Serializable> result = sender.editOrSend(1L, edit(1, "edited"), message(1, "fresh"));
+        scheduler.runDue();
+        calls.get(0).fail(new TelegramApiException("edit"));
+        scheduler.runDue();
+        calls.get(1).fail(new TelegramApiException("send"));
+        scheduler.runDue();
+
+        assertEquals(2, calls.size());
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, sender.getFailed());
+    }
+
+    /* ===================== helpers ===================== */
+
+    private OutboundSender sender(double globalRate, int globalBurst, double perChatRate, int perChatBurst,
+                                  int maxRetries) {
+        AbsSender bot = mock(AbsSender.class);
+        try {
+            doAnswer(inv -> {
+                Call call = new Call(inv.getArgument(0));
+                calls.add(call);
+                if (autoComplete) {
+                    call.succeed();
+                }
+                return call.future;
+            }).when(bot).executeAsync(any(BotApiMethod.class));
+        } catch (TelegramApiException e) {
+            throw new IllegalStateException(e);
+        }
+        return new OutboundSender(bot, globalRate, globalBurst, perChatRate, perChatBurst, maxRetries,
+                new SimpleMeterRegistry(), scheduler, scheduler::nanoTime);
+    }
+
+    private List<String> texts() {
+        return calls.stream().map(c -> c.method instanceof SendMessage m ? m.getText()
+                : ((EditMessageText) c.method).getText()).toList();
+    }
+
+    private static SendMessage message(long chatId, String text) {
+        return SendMessage.builder().chatId(chatId).text(text).build();
+    }
+
+    private static EditMessageText edit(long chatId, String text) {
+        return EditMessageText.builder().chatId(chatId).messageId(1).text(text).build();
+    }
+
+    private static TelegramApiRequestException tooManyRequests(int retryAfter) {
+        String body = "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests\","
+                + "\"parameters\":{\"retry_after\":" + retryAfter + "}}";
+        try {
+            ApiResponse<Object> response = JSON.readValue(body, new TypeReference<>() {
+            });
+            return new TelegramApiRequestException("Error sending", response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Call {
+        final BotApiMethod<?> method;
+        final CompletableFuture<Serializable> future = new CompletableFuture<>();
+        final Message reply = new Message();
+
+        Call(BotApiMethod<?> method) {
+            this.method = method;
+        }
+
+        void succeed() {
+            future.complete(reply);
+        }
+
+        void fail(Throwable error) {
+            future.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import io.mitrofanovbp.testdrivebot.telegram.UpdateDeduplicator.Verdict;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Duplicate suppression windows of {@link UpdateDeduplicator}, on a manual clock.
+ */
+class UpdateDeduplicatorTest {
+
+    private static final int WINDOW = 16;
+    private static final Duration COALESCE = Duration.ofMillis(1500);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final UpdateDeduplicator dedupe = new UpdateDeduplicator(WINDOW, COALESCE, clock::get);
+
+    @Test
+    void repeatedUpdateIdIsDroppedInsideTheWindow() {
+        assertEquals(Verdict.ACCEPT, dedupe.check(message(1)));
+        assertEquals(Verdict.DUPLICATE_UPDATE, dedupe.check(message(1)));
+
+        clock.addAndGet(Duration.ofHours(1).toNanos());
+        assertEquals(Verdict.DUPLICATE_UPDATE, dedupe.check(message(1)), "update ids do not expire with time");
+        assertEquals(Verdict.ACCEPT, dedupe.check(message(2)));
+    }
+
+    @Test
+    void updateIdIsAcceptedAgainOncePushedOutOfTheWindow() {
+        assertEquals(Verdict.ACCEPT, dedupe.check(message(1)));
+        for (int id = 2; id < 2 + WINDOW * 64; id++) {
+            dedupe.check(message(id));
+        }
+
+        assertEquals(Verdict.ACCEPT, dedupe.check(message(1)));
+    }
+
+    @Test
+    void newUpdateIdsAreNeverReportedAsSeen() {
+        for (int id = 1; id <= 10_000; id++) {
+            assertEquals(Verdict.ACCEPT, dedupe.check(message(id)), "update " + id);
+        }
+    }
+
+    @Test
+    void redeliveredCallbackIsDroppedByQueryId() {
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(1, "q1", 10, "CAR:1")));
+
+        // same query under a new update id (webhook retry after a restart)
+        assertEquals(Verdict.DUPLICATE_CALLBACK, dedupe.check(callback(2, "q1", 10, "CAR:1")));
+    }
+
+    @Test
+    void doubleTapIsCoalescedUntilTheWindowExpires() {
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(1, "q1", 10, "CAR:1")));
+
+        clock.addAndGet(COALESCE.toNanos() - 1);
+        assertEquals(Verdict.COALESCED, dedupe.check(callback(2, "q2", 10, "CAR:1")));
+
+        clock.addAndGet(COALESCE.toNanos());
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(3, "q3", 10, "CAR:1")));
+    }
+
+    @Test
+    void otherButtonOrMessageIsNotCoalesced() {
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(1, "q1", 10, "CAR:1")));
+
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(2, "q2", 10, "CAR:2")));
+        assertEquals(Verdict.ACCEPT, dedupe.check(callback(3, "q3", 11, "CAR:1")));
+    }
+
+    @Test
+    void concurrentSubmitsOfOneUpdateAcceptItOnce() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int id = 1; id <= 500; id++) {
+                Update update = message(id);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Verdict>> verdicts = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    verdicts.add(pool.submit(() -> {
+                        start.await();
+                        return dedupe.check(update);
+                    }));
+                }
+                start.countDown();
+
+                int accepted = 0;
+                for (Future<Verdict> v : verdicts) {
+                    if (v.get(5, TimeUnit.SECONDS) == Verdict.ACCEPT) {
+                        accepted++;
+                    }
+                }
+                assertEquals(1, accepted, "update " + id);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* ===================== helpers ===================== */
+
+    private static Update message(int updateId) {
+        Update update = new Update();
+        update.setUpdateId(updateId);
+        update.setMessage(chatMessage(1));
+        return update;
+    }
+
+    private static Update callback(int updateId, String queryId, int messageId, String data) {
+        CallbackQuery cb = new CallbackQuery();
+        cb.setId(queryId);
+        cb.setData(data);
+        cb.setMessage(chatMessage(messageId));
+        Update update = new Update();
+        update.setUpdateId(updateId);
+        update.setCallbackQuery(cb);
+        return update;
+    }
+
+    private static Message chatMessage(int messageId) {
+        Chat chat = new Chat();
+        chat.setId(42L);
+        chat.setType("private");
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setChat(chat);
+        return message;
+    }
+}
@@ -0,0 +1,156 @@
+package io.mitrofanovbp.testdrivebot.telegram;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-chat ordering and the queue bound of {@link UpdateDispatcher} on a fixed pool.
+ */
+class UpdateDispatcherTest {
+
+    private static final int WORKERS = 4;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void updatesOfOneChatRunInOrderAcrossWorkers() throws InterruptedException {
+        int chats = 16;
+        int perChat = 200;
+        UpdateDispatcher dispatcher = new UpdateDispatcher(pool, 64);
+        List<List<Integer>> seen = new ArrayList<>();
+        for (int c = 0; c < chats; c++) {
+            seen.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // interleaved: chat 0 #0, chat 1 #0, ..., chat 0 #1, ...
+        for (int i = 0; i < perChat; i++) {
+            for (int c = 0; c < chats; c++) {
+                int chat = c;
+                int seq = i;
+                dispatcher.dispatch((long) chat, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    seen.get(chat).add(seq);
+                    Thread.yield();
+                    running.decrementAndGet();
+                });
+            }
+        }
+        dispatcher.shutdown();
+
+        for (int c = 0; c < chats; c++) {
+            List<Integer> got = seen.get(c);
+            assertEquals(perChat, got.size(), "chat " + c);
+            for (int i = 0; i < perChat; i++) {
+                assertEquals(i, got.get(i), "chat " + c + " out of order");
+            }
+        }
+        assertTrue(maxRunning.get() > 1, "different chats should run in parallel");
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(0, dispatcher.getActiveKeys());
+    }
+
+    @Test
+    void dispatchBlocksWhileQueueIsFull() throws InterruptedException {
+        int capacity = 3;
+        UpdateDispatcher dispatcher = new UpdateDispatcher(pool, capacity);
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger();
+        Runnable held = () -> {
+            await(gate);
+            done.incrementAndGet();
+        };
+
+        // one running task, two queued behind it in the same chat: the dispatcher is full
+        for (int i = 0; i < capacity; i++) {
+            dispatcher.dispatch(1L, held);
+        }
+        assertEquals(capacity, dispatcher.getQueueDepth());
+
+        CountDownLatch overflowReturned = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            dispatcher.dispatch(2L, done::incrementAndGet);
+            overflowReturned.countDown();
+        });
+        producer.start();
+        awaitState(producer, Thread.State.WAITING);
+        assertFalse(overflowReturned.await(0, TimeUnit.MILLISECONDS), "dispatch should block at capacity");
+        assertEquals(capacity, dispatcher.getQueueDepth());
+
+        gate.countDown();
+        assertTrue(overflowReturned.await(5, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        assertEquals(capacity + 1, done.get());
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    void queueDepthNeverExceedsCapacity() throws InterruptedException {
+        int capacity = 5;
+        UpdateDispatcher dispatcher = new UpdateDispatcher(pool, capacity);
+        AtomicInteger maxDepth = new AtomicInteger();
+
+        for (int i = 0; i < 500; i++) {
+            dispatcher.dispatch((long) (i % 7), () -> {
+                maxDepth.accumulateAndGet(dispatcher.getQueueDepth(), Math::max);
+                Thread.yield();
+            });
+        }
+        dispatcher.shutdown();
+
+        assertTrue(maxDepth.get() <= capacity, "depth " + maxDepth.get());
+    }
+
+    @Test
+    void failingTaskDoesNotBreakTheChain() throws InterruptedException {
+        UpdateDispatcher dispatcher = new UpdateDispatcher(pool, 8);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.dispatch(1L, () -> seen.add("a"));
+        dispatcher.dispatch(1L, () -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.dispatch(1L, () -> seen.add("c"));
+        dispatcher.shutdown();
+
+        assertEquals(List.of("a", "c"), seen);
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    /* ===================== helpers ===================== */
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state) {
+            assertTrue(System.nanoTime() < deadline, "thread is " + thread.getState());
+            Thread.sleep(1);
+        }
+    }
+}
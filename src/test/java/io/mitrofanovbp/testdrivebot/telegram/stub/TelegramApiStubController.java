@@ -0,0 +1,175 @@
+package io.mitrofanovbp.testdrivebot.telegram.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.mitrofanovbp.testdrivebot.controller.TelegramWebhookController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Telegram Bot API (profile {@code telegram-stub}) for offline webhook runs.
+ * Lives in test sources only, so it is never packaged: run it with {@code mvn spring-boot:test-run}
+ * ({@link io.mitrofanovbp.testdrivebot.TestTestDriveBookingBotApplication}), from tests or from the load generator.
+ * <p>
+ * Point app.telegram-api-url to {@code http://localhost:8080/telegram-stub/}; bot API calls are answered
+ * with minimal successful responses and recorded. Updates posted to {@code /telegram-stub/updates}
+ * are forwarded to the registered webhook exactly as Telegram would deliver them.
+ */
+@RestController
+@Profile("telegram-stub")
+@RequestMapping("/telegram-stub")
+public class TelegramApiStubController {
+
+    private static final Logger log = LoggerFactory.getLogger(TelegramApiStubController.class);
+
+    private static final int MAX_RECORDED = 1000;
+
+    private final ObjectMapper mapper;
+    private final RestClient http = RestClient.create();
+
+    private final Deque<RecordedCall> calls = new ArrayDeque<>();
+    private final AtomicInteger messageIds = new AtomicInteger(1000);
+
+    private volatile String webhookUrl;
+    private volatile String webhookSecret;
+
+    public TelegramApiStubController(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Bot API method call, e.g. POST /telegram-stub/bot{token}/sendMessage.
+     */
+    @PostMapping(value = "/bot{token}/{method}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public JsonNode call(@PathVariable String token, @PathVariable String method,
+                         @RequestBody(required = false) byte[] body) throws IOException {
+        JsonNode params = (body == null || body.length == 0) ? mapper.createObjectNode() : mapper.readTree(body);
+        record(new RecordedCall(Instant.now(), method, params));
+
+        switch (method) {
+            case "setWebhook" -> {
+                webhookUrl = params.path("url").asText(null);
+                webhookSecret = params.path("secret_token").asText(null);
+                log.info("Stub: webhook set to {}", webhookUrl);
+            }
+            case "deleteWebhook" -> webhookUrl = null;
+            default -> {
+            }
+        }
+
+        ObjectNode response = mapper.createObjectNode();
+        response.put("ok", true);
+        response.set("result", resultFor(method, params));
+        return response;
+    }
+
+    /**
+     * Simulates Telegram delivering an update to the registered webhook.
+     */
+    @PostMapping(value = "/updates", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> deliver(@RequestBody String update) {
+        String url = webhookUrl;
+        if (!StringUtils.hasText(url)) {
+            return ResponseEntity.badRequest().body("No webhook registered");
+        }
+        RestClient.RequestBodySpec req = http.post().uri(url).contentType(MediaType.APPLICATION_JSON);
+        if (StringUtils.hasText(webhookSecret)) {
+            req = req.header(TelegramWebhookController.SECRET_HEADER, webhookSecret);
+        }
+        return req.body(update).retrieve().toEntity(String.class);
+    }
+
+    /**
+     * Recorded bot API calls, oldest first.
+     */
+    @GetMapping("/calls")
+    public List<RecordedCall> calls() {
+        synchronized (calls) {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    @DeleteMapping("/calls")
+    public void clear() {
+        synchronized (calls) {
+            calls.clear();
+        }
+    }
+
+    private void record(RecordedCall call) {
+        synchronized (calls) {
+            if (calls.size() >= MAX_RECORDED) {
+                calls.removeFirst();
+            }
+            calls.addLast(call);
+        }
+    }
+
+    private JsonNode resultFor(String method, JsonNode params) {
+        return switch (method) {
+            case "sendMessage", "editMessageText" -> message(params);
+            case "getUpdates" -> mapper.createArrayNode();
+            case "getMe" -> mapper.createObjectNode()
+                    .put("id", 1L)
+                    .put("is_bot", true)
+                    .put("first_name", "stub")
+                    .put("username", "stub_bot");
+            default -> mapper.getNodeFactory().booleanNode(true);
+        };
+    }
+
+    private JsonNode message(JsonNode params) {
+        ObjectNode chat = mapper.createObjectNode()
+                .put("id", params.path("chat_id").asLong())
+                .put("type", "private");
+        ObjectNode msg = mapper.createObjectNode()
+                .put("message_id", params.has("message_id") ? params.path("message_id").asInt() : messageIds.incrementAndGet())
+                .put("date", Instant.now().getEpochSecond())
+                .put("text", params.path("text").asText(""));
+        msg.set("chat", chat);
+        return msg;
+    }
+
+    /**
+     * A bot API call as seen by the stub.
+     */
+    public static class RecordedCall {
+
+        private final Instant at;
+        private final String method;
+        private final JsonNode params;
+
+        public RecordedCall(Instant at, String method, JsonNode params) {
+            this.at = at;
+            this.method = method;
+            this.params = params;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public JsonNode getParams() {
+            return params;
+        }
+    }
+}